@@ -1,12 +1,21 @@
 package app.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import app.exception.ServiceException;
 import app.model.ActivityDto;
+import app.model.ActivitySummaryEntity;
+import app.service.ActivityRetentionService;
 import app.service.ActivityService;
 import app.utils.Fetch;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.Map;
 import java.util.List;
 
@@ -15,9 +24,11 @@ import java.util.List;
 public class ActivityController {
 
     private final ActivityService activityService;
+    private final ActivityRetentionService retentionService;
 
-    public ActivityController(ActivityService activityService) {
+    public ActivityController(ActivityService activityService, ActivityRetentionService retentionService) {
         this.activityService = activityService;
+        this.retentionService = retentionService;
     }
 
     @PostMapping("/activities")
@@ -32,13 +43,53 @@ public class ActivityController {
         }
     }
 
+    // Accepts a JSON array or application/x-ndjson, one activity per line
+    @PostMapping(value = "/activities/batch",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> logActivities(@RequestHeader(value = "Authorization", required = false) String bearerToken,
+                                           InputStream body) {
+        try {
+            String userId = bearerToken == null ? null : Fetch.extractBearerToken(bearerToken);
+            int saved = activityService.logActivities(userId, activityService.readActivities(body));
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("saved", saved));
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus()).build();
+        }
+    }
+
+    // Full NDJSON dump, streamed row by row from a database cursor
+    @GetMapping(value = "/activities/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportActivities(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        activityService.exportActivities(response.getOutputStream());
+    }
+
     @GetMapping("/activities")
-    public ResponseEntity<?> getAllActivities() {
+    public ResponseEntity<?> getActivities(@RequestParam(required = false) String userId,
+                                           @RequestParam(required = false) String type,
+                                           @RequestParam(required = false) Long before,
+                                           @RequestParam(required = false) Integer limit) {
         try {
-            List<ActivityDto> activities = activityService.getAllActivities();
+            List<ActivityDto> activities = userId == null
+                    ? activityService.getAllActivities()
+                    : activityService.getActivitiesByUserId(userId, type, before, limit);
             return ResponseEntity.ok(activities);
         } catch (ServiceException e) {
             return ResponseEntity.status(e.getStatus()).build();
         }
     }
-}
\ No newline at end of file
+
+    // Daily per-user rollups of activities that have aged out of the raw table
+    @GetMapping("/activities/summaries")
+    public ResponseEntity<?> getSummaries(@RequestParam String userId,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            List<ActivitySummaryEntity> summaries = retentionService.getSummaries(userId, from, to);
+            return ResponseEntity.ok(summaries);
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus()).build();
+        }
+    }
+}
@@ -1,21 +1,42 @@
 package app.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import java.time.OffsetDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ActivityDto {
 
     private Long id;
     private String userId;
-    private String activityObject;
+    private String type;
+    private String title;
+    private String description;
+    private String path;
+    private OffsetDateTime timestamp;
+
+    // Stored extras are already JSON, so they are written through without a parse
+    @JsonRawValue
+    private String extras;
 
     public ActivityDto() {}
 
-    public ActivityDto(String activityObject) {
-        this.activityObject = activityObject;
+    public ActivityDto(ActivityEntity entity) {
+        this(entity.getId(), entity.getUserId(), entity.getType(), entity.getTitle(), entity.getDescription(),
+                entity.getPath(), entity.getOccurredAt(), entity.getExtras());
     }
 
-    public ActivityDto(ActivityEntity entity) {
-        this.id = entity.getId();
-        this.userId = entity.getUserId();
-        this.activityObject = entity.getActivityObject();
+    // Used by JPQL constructor expressions, which project rows without managing an entity
+    public ActivityDto(Long id, String userId, String type, String title, String description, String path,
+                       OffsetDateTime timestamp, String extras) {
+        this.id = id;
+        this.userId = userId;
+        this.type = type;
+        this.title = title;
+        this.description = description;
+        this.path = path;
+        this.timestamp = timestamp;
+        this.extras = extras;
     }
 
     public Long getId() { return id; }
@@ -24,6 +45,21 @@ public class ActivityDto {
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
 
-    public String getActivityObject() { return activityObject; }
-    public void setActivityObject(String activityObject) { this.activityObject = activityObject; }
-}
\ No newline at end of file
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public OffsetDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(OffsetDateTime timestamp) { this.timestamp = timestamp; }
+
+    public String getExtras() { return extras; }
+    public void setExtras(String extras) { this.extras = extras; }
+}
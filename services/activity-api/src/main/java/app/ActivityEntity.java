@@ -1,26 +1,60 @@
 package app.model;
 
 import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 
 @Entity
-@Table(name = "activities")
+@Table(name = "activities", indexes = {
+    @Index(name = "idx_activities_user_id", columnList = "userId, id"),
+    @Index(name = "idx_activities_user_type", columnList = "userId, type, id"),
+    @Index(name = "idx_activities_type_occurred_at", columnList = "type, occurredAt"),
+    @Index(name = "idx_activities_bucket_day", columnList = "bucketDay")
+})
 public class ActivityEntity {
 
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activities_seq")
+    @SequenceGenerator(name = "activities_seq", sequenceName = "activities_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String userId;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String activityObject;
+    @Column(length = 64)
+    private String type;
+
+    private String title;
+
+    @Column(length = 2000)
+    private String description;
+
+    @Column(length = 512)
+    private String path;
+
+    @Column(nullable = false)
+    private OffsetDateTime occurredAt;
+
+    // UTC day of occurredAt: the unit retention compacts and drops, like a daily partition
+    @Column(nullable = false)
+    private LocalDate bucketDay;
+
+    // Any fields beyond the typed columns, as compact JSON; null for the common case
+    @Column(columnDefinition = "TEXT")
+    private String extras;
 
     public ActivityEntity() {}
 
-    public ActivityEntity(String userId, String activityObject) {
+    public ActivityEntity(String userId, String type, String title, String description, String path,
+                          OffsetDateTime occurredAt) {
         this.userId = userId;
-        this.activityObject = activityObject;
+        this.type = type;
+        this.title = title;
+        this.description = description;
+        this.path = path;
+        setOccurredAt(occurredAt);
     }
 
     public Long getId() { return id; }
@@ -29,11 +63,36 @@ public class ActivityEntity {
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
 
-    public String getActivityObject() { return activityObject; }
-    public void setActivityObject(String activityObject) { this.activityObject = activityObject; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public OffsetDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(OffsetDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+        this.bucketDay = occurredAt == null ? null : bucketDayOf(occurredAt);
+    }
+
+    public LocalDate getBucketDay() { return bucketDay; }
+
+    public static LocalDate bucketDayOf(OffsetDateTime occurredAt) {
+        return occurredAt.atZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+    }
+
+    public String getExtras() { return extras; }
+    public void setExtras(String extras) { this.extras = extras; }
 
     @Override
     public String toString() {
-        return "ActivityEntity{id=" + id + ", userId='" + userId + "', activityObject='" + activityObject + "}";
+        return "ActivityEntity{id=" + id + ", userId='" + userId + "', type='" + type + "', path='" + path
+                + "', occurredAt=" + occurredAt + "}";
     }
-}
\ No newline at end of file
+}
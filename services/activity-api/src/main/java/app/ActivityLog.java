@@ -0,0 +1,40 @@
+package app.repository;
+
+import app.model.ActivityDto;
+import app.model.ActivityEntity;
+import app.model.ActivitySummaryEntity;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// The activity log behind a backend chosen by activity.store.backend: jpa (default) or segment. Every
+// read and delete of raw activities goes through here, so both backends serve the whole API.
+public interface ActivityLog {
+
+    // Assigns the activity its id
+    ActivityEntity append(ActivityEntity activity);
+
+    void appendAll(List<ActivityEntity> activities);
+
+    // Newest first; null type or before disables that filter
+    List<ActivityEntity> findPage(String userId, String type, Long before, int limit);
+
+    List<ActivityEntity> findByUserId(String userId);
+
+    // Every activity in id order, handed over one at a time so heap use does not grow with the log
+    void forEach(Consumer<ActivityDto> action);
+
+    // The oldest raw activities from before the cutoff day that the backend drops as one unit: a day bucket
+    // for jpa, a whole sealed segment for segment. Empty when nothing before the cutoff can be dropped yet.
+    Optional<Compaction> nextCompaction(LocalDate cutoff);
+
+    // A unit's activities rolled up per user, day and kind, and the action that drops them. Drop joins the
+    // caller's transaction; the segment backend, living outside the database, defers it until that commits.
+    record Compaction(String unit, List<ActivitySummaryEntity> summaries, Runnable drop) {
+
+        public long activities() {
+            return summaries.stream().mapToLong(ActivitySummaryEntity::getCount).sum();
+        }
+    }
+}
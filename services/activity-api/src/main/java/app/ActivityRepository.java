@@ -1,11 +1,57 @@
 package app.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import app.model.ActivityDto;
 import app.model.ActivityEntity;
+import app.model.ActivitySummaryEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActivityRepository extends JpaRepository<ActivityEntity, Long> {
+    int EXPORT_FETCH_SIZE = 500;
+
     List<ActivityEntity> findByUserIdOrderByIdDesc(String userId);
+
+    // Newest-first keyset pages over idx_activities_user_id / idx_activities_user_type;
+    // null type or before disables that filter
+    @Query("SELECT a FROM ActivityEntity a WHERE a.userId = :userId " +
+           "AND (:type IS NULL OR a.type = :type) " +
+           "AND (:before IS NULL OR a.id < :before) " +
+           "ORDER BY a.id DESC")
+    List<ActivityEntity> findPage(@Param("userId") String userId,
+                                  @Param("type") String type,
+                                  @Param("before") Long before,
+                                  Pageable pageable);
+
+    // Whole table in id order, read through a cursor EXPORT_FETCH_SIZE rows at a time. Rows are
+    // projected straight to DTOs so nothing accumulates in the persistence context; the caller must
+    // hold a transaction open and close the stream
+    @Query("SELECT new app.model.ActivityDto(a.id, a.userId, a.type, a.title, a.description, a.path, " +
+           "a.occurredAt, a.extras) FROM ActivityEntity a ORDER BY a.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    Stream<ActivityDto> streamAll();
+
+    // Day buckets that have aged out of the raw retention window, oldest first
+    @Query("SELECT DISTINCT a.bucketDay FROM ActivityEntity a WHERE a.bucketDay < :cutoff ORDER BY a.bucketDay")
+    List<LocalDate> findBucketDaysBefore(@Param("cutoff") LocalDate cutoff);
+
+    // One day's raw activities rolled up per user and kind, as unmanaged summaries
+    @Query("SELECT new app.model.ActivitySummaryEntity(a.userId, a.bucketDay, COALESCE(a.type, a.title, 'UNKNOWN'), " +
+           "COUNT(a), MIN(a.occurredAt), MAX(a.occurredAt)) FROM ActivityEntity a WHERE a.bucketDay = :day " +
+           "GROUP BY a.userId, a.bucketDay, COALESCE(a.type, a.title, 'UNKNOWN')")
+    List<ActivitySummaryEntity> summariseBucketDay(@Param("day") LocalDate day);
+
+    @Modifying
+    @Query("DELETE FROM ActivityEntity a WHERE a.bucketDay = :day")
+    int deleteByBucketDay(@Param("day") LocalDate day);
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package app.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import app.exception.ServiceException;
+import app.model.ActivitySummaryEntity;
+import app.repository.ActivityLog;
+import app.repository.ActivitySummaryRepository;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+// Keeps raw activities to a hot window of day buckets. Whatever has aged out is rolled up into per-user daily
+// summaries and dropped in one transaction per unit the activity log drops at once (a day, or a sealed
+// segment), and summaries expire on their own, longer window, so storage stays bounded whatever the write rate.
+@Service
+public class ActivityRetentionService {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityRetentionService.class);
+
+    private final ActivityLog activityLog;
+    private final ActivitySummaryRepository summaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int rawDays;
+    private final int summaryDays;
+
+    public ActivityRetentionService(ActivityLog activityLog,
+                                    ActivitySummaryRepository summaryRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${activity.retention.raw-days:30}") int rawDays,
+                                    @Value("${activity.retention.summary-days:365}") int summaryDays) {
+        this.activityLog = activityLog;
+        this.summaryRepository = summaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rawDays = rawDays;
+        this.summaryDays = summaryDays;
+    }
+
+    @Scheduled(cron = "${activity.retention.cron:0 15 3 * * *}", zone = "UTC")
+    public void applyRetention() {
+        applyRetention(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    public void applyRetention(LocalDate today) {
+        LocalDate rawCutoff = today.minusDays(rawDays);
+        ActivityLog.Compaction compaction;
+        while ((compaction = transactionTemplate.execute(status -> compactNext(rawCutoff))) != null) {
+            logger.info("Compacted {} raw activities from {} into daily summaries", compaction.activities(), compaction.unit());
+        }
+
+        LocalDate summaryCutoff = today.minusDays(summaryDays);
+        Integer purged = transactionTemplate.execute(status -> summaryRepository.deleteByDayBefore(summaryCutoff));
+        if (purged != null && purged > 0) {
+            logger.info("Dropped {} activity summaries older than {}", purged, summaryCutoff);
+        }
+    }
+
+    private ActivityLog.Compaction compactNext(LocalDate cutoff) {
+        return activityLog.nextCompaction(cutoff).map(compaction -> {
+            for (ActivitySummaryEntity summary : compaction.summaries()) {
+                summaryRepository.findByUserIdAndDayAndKind(summary.getUserId(), summary.getDay(), summary.getKind())
+                        .ifPresentOrElse(existing -> existing.merge(summary), () -> summaryRepository.save(summary));
+            }
+            compaction.drop().run();
+            return compaction;
+        }).orElse(null);
+    }
+
+    // A user's summaries between two days inclusive, newest first; defaults to the whole summary window
+    public List<ActivitySummaryEntity> getSummaries(String userId, LocalDate from, LocalDate to) throws ServiceException {
+        LocalDate end = to == null ? LocalDate.now(ZoneOffset.UTC) : to;
+        LocalDate start = from == null ? end.minusDays(summaryDays) : from;
+        if (start.isAfter(end)) {
+            throw new ServiceException("from must not be after to", HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            return summaryRepository.findByUserIdAndDayBetweenOrderByDayDescKindAsc(userId, start, end);
+        } catch (Exception e) {
+            throw new ServiceException("Failed to retrieve activity summaries", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -1,54 +1,207 @@
 package app.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.http.HttpStatus;
 import app.exception.ServiceException;
 import app.model.ActivityDto;
 import app.model.ActivityEntity;
-import app.repository.ActivityRepository;
+import app.repository.ActivityLog;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class ActivityService {
 
-    private final ActivityRepository activityRepository;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    private static final TypeReference<Map<String, Object>> ACTIVITY_TYPE = new TypeReference<>() {};
+    private static final Pattern ACTIVITY_CODE = Pattern.compile("[A-Z][A-Z0-9_]*");
+
+    private final ActivityLog activityLog;
     private final ObjectMapper objectMapper;
 
-    public ActivityService(ActivityRepository activityRepository) {
-        this.activityRepository = activityRepository;
+    // One compact JSON document per line; never closes the response stream it writes to
+    private final ObjectWriter exportWriter = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build()
+            .writer();
+
+    public ActivityService(ActivityLog activityLog) {
+        this.activityLog = activityLog;
         this.objectMapper = new ObjectMapper();
     }
 
     public String logActivity(String userId, Map<String, Object> activityData) throws ServiceException {
         try {
-            // Convert the activity data to JSON string
-            String activityJson = objectMapper.writeValueAsString(activityData);
-
-            ActivityEntity activity = new ActivityEntity(userId, activityJson);
-            ActivityEntity savedActivity = activityRepository.save(activity);
+            ActivityEntity activity = toEntity(userId, activityData);
+            ActivityEntity savedActivity = activityLog.append(activity);
             return savedActivity.getId().toString();
         } catch (Exception e) {
             throw new ServiceException("Failed to log activity", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    // Reads a JSON array or newline-delimited JSON objects straight off the request body
+    public List<Map<String, Object>> readActivities(InputStream body) throws ServiceException {
+        List<Map<String, Object>> activities = new ArrayList<>();
+        try (MappingIterator<Map<String, Object>> values = objectMapper.readerFor(ACTIVITY_TYPE).readValues(body)) {
+            while (values.hasNextValue()) {
+                if (activities.size() == MAX_BATCH_SIZE) {
+                    throw new ServiceException("A batch holds at most " + MAX_BATCH_SIZE + " activities",
+                            HttpStatus.PAYLOAD_TOO_LARGE);
+                }
+                activities.add(values.nextValue());
+            }
+        } catch (IOException e) {
+            throw new ServiceException("Malformed activity batch", HttpStatus.BAD_REQUEST);
+        }
+        return activities;
+    }
+
+    // All or nothing: one transaction, written as JDBC batches. Each activity may name its own userId,
+    // otherwise it belongs to the caller
+    @Transactional(rollbackFor = ServiceException.class)
+    public int logActivities(String defaultUserId, List<Map<String, Object>> batch) throws ServiceException {
+        List<ActivityEntity> activities = new ArrayList<>(batch.size());
+        for (Map<String, Object> activityData : batch) {
+            Map<String, Object> data = new LinkedHashMap<>(activityData);
+            Object userId = data.remove("userId");
+            String owner = userId != null ? userId.toString() : defaultUserId;
+            if (owner == null) {
+                throw new ServiceException("Every activity needs a userId or an Authorization header",
+                        HttpStatus.BAD_REQUEST);
+            }
+            try {
+                activities.add(toEntity(owner, data));
+            } catch (JsonProcessingException e) {
+                throw new ServiceException("Malformed activity batch", HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        try {
+            activityLog.appendAll(activities);
+            return activities.size();
+        } catch (Exception e) {
+            throw new ServiceException("Failed to log activities", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Known fields go to typed columns; anything else is kept as a compact JSON extras payload
+    public ActivityEntity toEntity(String userId, Map<String, Object> activityData) throws JsonProcessingException {
+        Map<String, Object> extras = new LinkedHashMap<>(activityData);
+        String type = asText(extras.remove("type"));
+        String title = asText(extras.remove("title"));
+        // Older senders only put their activity code in the title
+        if (type == null && title != null && ACTIVITY_CODE.matcher(title).matches()) {
+            type = title;
+        }
+        ActivityEntity activity = new ActivityEntity(
+                userId,
+                type,
+                title,
+                asText(extras.remove("description")),
+                asText(extras.remove("path")),
+                parseTimestamp(extras.remove("timestamp")));
+        if (!extras.isEmpty()) {
+            activity.setExtras(objectMapper.writeValueAsString(extras));
+        }
+        return activity;
+    }
+
+    private static String asText(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static OffsetDateTime parseTimestamp(Object value) {
+        if (value instanceof String text) {
+            try {
+                return OffsetDateTime.parse(text);
+            } catch (DateTimeParseException e) {
+                // Fall through to the time it was logged
+            }
+        }
+        return OffsetDateTime.now();
+    }
+
     public List<ActivityDto> getAllActivities() throws ServiceException {
         try {
-            List<ActivityEntity> activities = activityRepository.findAll();
+            List<ActivityDto> activities = new ArrayList<>();
+            activityLog.forEach(activities::add);
+            return activities;
+        } catch (Exception e) {
+            throw new ServiceException("Failed to retrieve activities", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Writes every activity as NDJSON while reading it, so heap use does not grow with the log
+    public long exportActivities(OutputStream out) throws IOException {
+        long[] exported = {0};
+        try {
+            activityLog.forEach(activity -> {
+                try {
+                    exportWriter.writeValue(out, activity);
+                    out.write('\n');
+                    exported[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+        return exported[0];
+    }
+
+    public List<ActivityDto> getActivitiesByUserId(String userId) throws ServiceException {
+        try {
+            List<ActivityEntity> activities = activityLog.findByUserId(userId);
             return activities.stream()
                     .map(ActivityDto::new)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            throw new ServiceException("Failed to retrieve activities", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ServiceException("Failed to retrieve user activities", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    public List<ActivityDto> getActivitiesByUserId(String userId) throws ServiceException {
+    // One page of a user's history, newest first; pass the last id seen as `before` for the next page
+    public List<ActivityDto> getActivitiesByUserId(String userId, Long before, Integer limit) throws ServiceException {
+        return getActivitiesByUserId(userId, null, before, limit);
+    }
+
+    public List<ActivityDto> getActivitiesByUserId(String userId, String type, Long before, Integer limit)
+            throws ServiceException {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ServiceException("Limit must be between 1 and " + MAX_PAGE_SIZE, HttpStatus.BAD_REQUEST);
+        }
+
         try {
-            List<ActivityEntity> activities = activityRepository.findByUserIdOrderByIdDesc(userId);
+            List<ActivityEntity> activities = activityLog.findPage(userId, type, before, pageSize);
             return activities.stream()
                     .map(ActivityDto::new)
                     .collect(Collectors.toList());
@@ -56,4 +209,4 @@ public class ActivityService {
             throw new ServiceException("Failed to retrieve user activities", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package app.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+// What survives of a user's raw activities once their day leaves the retention window: one row per
+// user, day and kind (the activity type, or its title for request activities that carry no type)
+@Entity
+@Table(name = "activity_daily_summaries",
+    uniqueConstraints = @UniqueConstraint(name = "uk_activity_summaries_user_day_kind",
+                                          columnNames = {"userId", "activity_day", "kind"}),
+    indexes = @Index(name = "idx_activity_summaries_day", columnList = "activity_day"))
+public class ActivitySummaryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String userId;
+
+    // DAY is reserved in H2
+    @Column(name = "activity_day", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private String kind;
+
+    private long count;
+
+    private OffsetDateTime firstAt;
+
+    private OffsetDateTime lastAt;
+
+    public ActivitySummaryEntity() {}
+
+    public ActivitySummaryEntity(String userId, LocalDate day, String kind, long count,
+                                 OffsetDateTime firstAt, OffsetDateTime lastAt) {
+        this.userId = userId;
+        this.day = day;
+        this.kind = kind;
+        this.count = count;
+        this.firstAt = firstAt;
+        this.lastAt = lastAt;
+    }
+
+    // Late activities for an already compacted day are folded into the existing summary
+    public void merge(ActivitySummaryEntity other) {
+        this.count += other.count;
+        if (other.firstAt != null && (firstAt == null || other.firstAt.isBefore(firstAt))) {
+            this.firstAt = other.firstAt;
+        }
+        if (other.lastAt != null && (lastAt == null || other.lastAt.isAfter(lastAt))) {
+            this.lastAt = other.lastAt;
+        }
+    }
+
+    public Long getId() { return id; }
+
+    public String getUserId() { return userId; }
+
+    public LocalDate getDay() { return day; }
+
+    public String getKind() { return kind; }
+
+    public long getCount() { return count; }
+
+    public OffsetDateTime getFirstAt() { return firstAt; }
+
+    public OffsetDateTime getLastAt() { return lastAt; }
+}
@@ -0,0 +1,22 @@
+package app.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import app.model.ActivitySummaryEntity;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ActivitySummaryRepository extends JpaRepository<ActivitySummaryEntity, Long> {
+    Optional<ActivitySummaryEntity> findByUserIdAndDayAndKind(String userId, LocalDate day, String kind);
+
+    List<ActivitySummaryEntity> findByUserIdAndDayBetweenOrderByDayDescKindAsc(String userId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM ActivitySummaryEntity s WHERE s.day < :cutoff")
+    int deleteByDayBefore(@Param("cutoff") LocalDate cutoff);
+}
@@ -1,5 +1,6 @@
 package app.consumer;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -7,117 +8,112 @@ import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import app.model.ActivityEntity;
-import app.repository.ActivityRepository;
+import app.repository.ActivityLog;
+import app.service.ActivityService;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Component
 public class EventConsumer {
     private static final Logger logger = LoggerFactory.getLogger(EventConsumer.class);
 
-    private final ActivityRepository activityRepository;
+    private final ActivityLog activityLog;
+    private final ActivityService activityService;
     private final ObjectMapper objectMapper;
 
-    public EventConsumer(ActivityRepository activityRepository) {
-        this.activityRepository = activityRepository;
+    public EventConsumer(ActivityLog activityLog, ActivityService activityService) {
+        this.activityLog = activityLog;
+        this.activityService = activityService;
         this.objectMapper = new ObjectMapper();
     }
 
-    @KafkaListener(topics = "user-created", groupId = "activity-service-group")
-    public void consumeUserCreated(String message) {
-        try {
-            logger.info("Received UserCreatedEvent: {}", message);
-            JsonNode event = objectMapper.readTree(message);
-
+    @KafkaListener(topics = "user-created", groupId = "activity-service-group", batch = "true")
+    public void consumeUserCreated(List<String> messages) {
+        saveBatch("USER_CREATED", messages, event -> {
             String userId = event.get("userId").asText();
             String userEmail = event.get("email").asText();
 
-            String activityJson = objectMapper.writeValueAsString(new java.util.HashMap<String, Object>() {{
-                put("type", "USER_CREATED");
-                put("description", "User " + userEmail + " was created");
-                put("path", "/user");
-                put("timestamp", OffsetDateTime.now().toString());
-            }});
-
-            ActivityEntity activity = new ActivityEntity(userId, activityJson);
-            activityRepository.save(activity);
-            logger.info("Logged USER_CREATED activity for user: {}", userId);
-        } catch (Exception e) {
-            logger.error("Error processing UserCreatedEvent: {}", message, e);
-        }
+            return new ActivityEntity(userId, "USER_CREATED", null,
+                "User " + userEmail + " was created",
+                "/user", OffsetDateTime.now());
+        });
     }
 
-    @KafkaListener(topics = "event-created", groupId = "activity-service-group")
-    public void consumeEventCreated(String message) {
-        try {
-            logger.info("Received EventCreatedEvent: {}", message);
-            JsonNode event = objectMapper.readTree(message);
-
+    @KafkaListener(topics = "event-created", groupId = "activity-service-group", batch = "true")
+    public void consumeEventCreated(List<String> messages) {
+        saveBatch("EVENT_CREATED", messages, event -> {
             String eventId = event.get("eventId").asText();
             String eventTitle = event.get("title").asText();
             String createdBy = event.get("createdBy").asText();
 
-            String activityJson = objectMapper.writeValueAsString(new java.util.HashMap<String, Object>() {{
-                put("type", "EVENT_CREATED");
-                put("description", "Event '" + eventTitle + "' was created");
-                put("path", "/events/" + eventId);
-                put("timestamp", OffsetDateTime.now().toString());
-            }});
-
-            ActivityEntity activity = new ActivityEntity(createdBy, activityJson);
-            activityRepository.save(activity);
-            logger.info("Logged EVENT_CREATED activity for event: {}", eventId);
-        } catch (Exception e) {
-            logger.error("Error processing EventCreatedEvent: {}", message, e);
-        }
+            return new ActivityEntity(createdBy, "EVENT_CREATED", null,
+                "Event '" + eventTitle + "' was created",
+                "/events/" + eventId, OffsetDateTime.now());
+        });
     }
 
-    @KafkaListener(topics = "user-registered-event", groupId = "activity-service-group")
-    public void consumeUserRegistered(String message) {
-        try {
-            logger.info("Received UserRegisteredForEventEvent: {}", message);
-            JsonNode event = objectMapper.readTree(message);
-
+    @KafkaListener(topics = "user-registered-event", groupId = "activity-service-group", batch = "true")
+    public void consumeUserRegistered(List<String> messages) {
+        saveBatch("USER_REGISTERED", messages, event -> {
             String userId = event.get("userId").asText();
             String eventId = event.get("eventId").asText();
             String eventTitle = event.get("eventTitle").asText();
 
-            String activityJson = objectMapper.writeValueAsString(new java.util.HashMap<String, Object>() {{
-                put("type", "USER_REGISTERED");
-                put("description", "User registered for event '" + eventTitle + "'");
-                put("path", "/events/" + eventId + "/register");
-                put("timestamp", OffsetDateTime.now().toString());
-            }});
-
-            ActivityEntity activity = new ActivityEntity(userId, activityJson);
-            activityRepository.save(activity);
-            logger.info("Logged USER_REGISTERED activity for user: {} on event: {}", userId, eventId);
-        } catch (Exception e) {
-            logger.error("Error processing UserRegisteredForEventEvent: {}", message, e);
-        }
+            return new ActivityEntity(userId, "USER_REGISTERED", null,
+                "User registered for event '" + eventTitle + "'",
+                "/events/" + eventId + "/register", OffsetDateTime.now());
+        });
     }
 
-    @KafkaListener(topics = "event-capacity-reached", groupId = "activity-service-group")
-    public void consumeEventCapacityReached(String message) {
-        try {
-            logger.info("Received EventCapacityReachedEvent: {}", message);
-            JsonNode event = objectMapper.readTree(message);
-
+    @KafkaListener(topics = "event-capacity-reached", groupId = "activity-service-group", batch = "true")
+    public void consumeEventCapacityReached(List<String> messages) {
+        saveBatch("EVENT_CAPACITY_REACHED", messages, event -> {
             String eventId = event.get("eventId").asText();
             String eventTitle = event.get("eventTitle").asText();
             int maxParticipants = event.get("maxParticipants").asInt();
 
-            String activityJson = objectMapper.writeValueAsString(new java.util.HashMap<String, Object>() {{
-                put("type", "EVENT_CAPACITY_REACHED");
-                put("description", "Event '" + eventTitle + "' reached maximum capacity of " + maxParticipants);
-                put("path", "/events/" + eventId);
-                put("timestamp", OffsetDateTime.now().toString());
-            }});
-
-            ActivityEntity activity = new ActivityEntity("SYSTEM", activityJson);
-            activityRepository.save(activity);
-            logger.info("Logged EVENT_CAPACITY_REACHED activity for event: {}", eventId);
-        } catch (Exception e) {
-            logger.error("Error processing EventCapacityReachedEvent: {}", message, e);
+            return new ActivityEntity("SYSTEM", "EVENT_CAPACITY_REACHED", null,
+                "Event '" + eventTitle + "' reached maximum capacity of " + maxParticipants,
+                "/events/" + eventId, OffsetDateTime.now());
+        });
+    }
+
+    // Request activities queued and published in batches by client-api
+    @KafkaListener(topics = "client-activity", groupId = "activity-service-group", batch = "true")
+    public void consumeClientActivity(List<String> messages) {
+        saveBatch("CLIENT_ACTIVITY", messages, event -> {
+            Map<String, Object> activityData = objectMapper.convertValue(event, new TypeReference<Map<String, Object>>() {});
+            Object userId = activityData.remove("userId");
+            if (userId == null) {
+                throw new IllegalArgumentException("Missing userId");
+            }
+            return activityService.toEntity(userId.toString(), activityData);
+        });
+    }
+
+    // One poll becomes one transaction and one JDBC batch; malformed messages are logged and skipped
+    private void saveBatch(String type, List<String> messages, ActivityMapper mapper) {
+        List<ActivityEntity> activities = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            try {
+                activities.add(mapper.toActivity(objectMapper.readTree(message)));
+            } catch (Exception e) {
+                logger.error("Error processing {} message: {}", type, message, e);
+            }
+        }
+        if (activities.isEmpty()) {
+            return;
         }
+
+        // Failures propagate so the container's error handler redelivers the whole batch
+        activityLog.appendAll(activities);
+        logger.info("Logged {} {} activities from a batch of {} messages", activities.size(), type, messages.size());
+    }
+
+    @FunctionalInterface
+    private interface ActivityMapper {
+        ActivityEntity toActivity(JsonNode event) throws Exception;
     }
 }
@@ -0,0 +1,60 @@
+package app.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import app.model.ActivityDto;
+import app.model.ActivityEntity;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "activity.store.backend", havingValue = "jpa", matchIfMissing = true)
+public class JpaActivityLog implements ActivityLog {
+
+    private final ActivityRepository activityRepository;
+
+    public JpaActivityLog(ActivityRepository activityRepository) {
+        this.activityRepository = activityRepository;
+    }
+
+    @Override
+    public ActivityEntity append(ActivityEntity activity) {
+        return activityRepository.save(activity);
+    }
+
+    @Override
+    public void appendAll(List<ActivityEntity> activities) {
+        activityRepository.saveAll(activities);
+    }
+
+    @Override
+    public List<ActivityEntity> findPage(String userId, String type, Long before, int limit) {
+        return activityRepository.findPage(userId, type, before, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<ActivityEntity> findByUserId(String userId) {
+        return activityRepository.findByUserIdOrderByIdDesc(userId);
+    }
+
+    // The cursor behind streamAll needs the transaction held open while it is read
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<ActivityDto> action) {
+        try (Stream<ActivityDto> activities = activityRepository.streamAll()) {
+            activities.forEach(action);
+        }
+    }
+
+    @Override
+    public Optional<Compaction> nextCompaction(LocalDate cutoff) {
+        return activityRepository.findBucketDaysBefore(cutoff).stream().findFirst()
+                .map(day -> new Compaction(day.toString(), activityRepository.summariseBucketDay(day),
+                        () -> activityRepository.deleteByBucketDay(day)));
+    }
+}
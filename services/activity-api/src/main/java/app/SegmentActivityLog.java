@@ -0,0 +1,704 @@
+package app.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import app.model.ActivityDto;
+import app.model.ActivityEntity;
+import app.model.ActivitySummaryEntity;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Activity log kept in append-only, fixed-size, memory-mapped segment files instead of the database.
+//
+// Each record is [payload length][CRC32 of payload][payload] and a zero length marks the end of a
+// segment. A payload starts with its id and the location of the same user's previous record, so each
+// user's history is a chain on disk, walked newest first. The in-memory index is sparse: per user only the
+// latest location, the record count and every CHECKPOINT_INTERVAL-th location, so a `before` cursor is a
+// binary search over the checkpoints followed by at most one interval of the chain.
+//
+// A full segment is sealed with an .idx file holding the index changes it made, and startup loads those
+// instead of reading the segment. Only segments without an intact .idx, normally just the active one, are
+// scanned; the scan stops at the first torn or corrupt record, and the tail of the last segment is zeroed
+// so appends carry on from there.
+//
+// Retention truncates the log from the front one sealed segment at a time, once every record in the oldest
+// segment is older than the cutoff. Segment files keep their number, so locations stay valid, and chains that
+// reach into a dropped segment simply end there.
+@Component
+@ConditionalOnProperty(name = "activity.store.backend", havingValue = "segment")
+public class SegmentActivityLog implements ActivityLog {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentActivityLog.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int INDEX_MAGIC = 0x41494458;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int PREVIOUS_OFFSET = Long.BYTES; // within the payload, after the id
+    private static final int CHECKPOINT_INTERVAL = 64;
+    private static final long NO_RECORD = -1;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean forceOnAppend;
+
+    private final List<Segment> segments = new ArrayList<>(); // by segment number, null once dropped
+    private final Map<String, UserChain> userIndex = new HashMap<>();
+    private final Set<String> usersInActiveSegment = new LinkedHashSet<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int firstSegment; // oldest segment still on disk
+    private long nextId = 1;
+
+    public SegmentActivityLog(@Value("${activity.segment.dir:state/activity-api/segments}") String dir,
+                              @Value("${activity.segment.size-bytes:67108864}") int segmentBytes,
+                              @Value("${activity.segment.force-on-append:false}") boolean forceOnAppend) throws IOException {
+        this.dir = Path.of(dir);
+        this.segmentBytes = segmentBytes;
+        this.forceOnAppend = forceOnAppend;
+        Files.createDirectories(this.dir);
+        recover();
+    }
+
+    @Override
+    public ActivityEntity append(ActivityEntity activity) {
+        appendAll(List.of(activity));
+        return activity;
+    }
+
+    // Encodes the whole batch before writing any of it, so a record that cannot be stored fails the batch
+    @Override
+    public void appendAll(List<ActivityEntity> activities) {
+        lock.writeLock().lock();
+        try {
+            List<byte[]> payloads = new ArrayList<>(activities.size());
+            long id = nextId;
+            for (ActivityEntity activity : activities) {
+                byte[] payload = encode(id++, activity);
+                if (HEADER_BYTES + payload.length + HEADER_BYTES > segmentBytes) {
+                    throw new IllegalArgumentException("Activity of " + payload.length + " bytes does not fit in a segment");
+                }
+                payloads.add(payload);
+            }
+
+            for (int i = 0; i < activities.size(); i++) {
+                byte[] payload = payloads.get(i);
+                Segment active = activeSegment();
+                if (!active.fits(payload.length)) {
+                    active = roll();
+                }
+                ActivityEntity activity = activities.get(i);
+                UserChain chain = userIndex.computeIfAbsent(activity.getUserId(), userId -> new UserChain());
+                ByteBuffer.wrap(payload).putLong(PREVIOUS_OFFSET, chain.latest);
+                int position = active.append(payload);
+                activity.setId(nextId++);
+                chain.add(location(segments.size() - 1, position));
+                usersInActiveSegment.add(activity.getUserId());
+            }
+            if (forceOnAppend) {
+                activeSegment().buffer.force();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to roll activity segment", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ActivityEntity> findPage(String userId, String type, Long before, int limit) {
+        lock.readLock().lock();
+        try {
+            UserChain chain = userIndex.get(userId);
+            if (chain == null) {
+                return List.of();
+            }
+
+            List<ActivityEntity> page = new ArrayList<>((int) Math.min(limit, chain.count));
+            long location = before == null ? chain.latest : newestBefore(chain, before);
+            for (; isRecord(location) && page.size() < limit; location = previous(location)) {
+                ActivityEntity activity = read(location);
+                if (type == null || type.equals(activity.getType())) {
+                    page.add(activity);
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ActivityEntity> findByUserId(String userId) {
+        return findPage(userId, null, null, Integer.MAX_VALUE);
+    }
+
+    // Reads one record per lock hold, so appends carry on during a long export; records appended meanwhile
+    // are included
+    @Override
+    public void forEach(Consumer<ActivityDto> action) {
+        int index = 0;
+        int position = 0;
+        while (true) {
+            ActivityEntity activity;
+            lock.readLock().lock();
+            try {
+                if (index < firstSegment) {
+                    index = firstSegment;
+                    position = 0;
+                }
+                if (index >= segments.size()) {
+                    return;
+                }
+                Segment segment = segments.get(index);
+                if (position >= segment.writePosition) {
+                    if (index == segments.size() - 1) {
+                        return;
+                    }
+                    index++;
+                    position = 0;
+                    continue;
+                }
+                int length = segment.buffer.getInt(position);
+                activity = decode(segment.payload(position, length));
+                position += HEADER_BYTES + length;
+            } finally {
+                lock.readLock().unlock();
+            }
+            action.accept(new ActivityDto(activity));
+        }
+    }
+
+    // The oldest sealed segment once all of its records are from before the cutoff. The active segment is
+    // never dropped, and a segment holding any newer record keeps everything after it too.
+    @Override
+    public Optional<Compaction> nextCompaction(LocalDate cutoff) {
+        lock.readLock().lock();
+        try {
+            int index = firstSegment;
+            if (index >= segments.size() - 1) {
+                return Optional.empty();
+            }
+            List<ActivitySummaryEntity> summaries = summarise(segments.get(index), cutoff);
+            if (summaries == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new Compaction("segment " + index, summaries, () -> afterCommit(() -> drop(index))));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Null when the segment holds a record from the cutoff day or later, or one without a day, which the jpa
+    // backend never compacts either
+    private static List<ActivitySummaryEntity> summarise(Segment segment, LocalDate cutoff) {
+        Map<SummaryKey, ActivitySummaryEntity> summaries = new HashMap<>();
+        for (int position = 0; position < segment.writePosition; ) {
+            int length = segment.buffer.getInt(position);
+            ActivityEntity activity = decode(segment.payload(position, length));
+            if (activity.getBucketDay() == null || !activity.getBucketDay().isBefore(cutoff)) {
+                return null;
+            }
+            String kind = activity.getType() != null ? activity.getType()
+                    : activity.getTitle() != null ? activity.getTitle() : "UNKNOWN";
+            ActivitySummaryEntity summary = new ActivitySummaryEntity(activity.getUserId(), activity.getBucketDay(),
+                    kind, 1, activity.getOccurredAt(), activity.getOccurredAt());
+            summaries.merge(new SummaryKey(activity.getUserId(), activity.getBucketDay(), kind), summary,
+                    (existing, next) -> {
+                        existing.merge(next);
+                        return existing;
+                    });
+            position += HEADER_BYTES + length;
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    // The segment goes only once its summaries are committed; a crash in between counts it again next run,
+    // which beats losing it
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void drop(int index) {
+        lock.writeLock().lock();
+        try {
+            if (index != firstSegment || index >= segments.size() - 1) {
+                return;
+            }
+            segments.set(index, null);
+            firstSegment = index + 1;
+            userIndex.values().removeIf(chain -> {
+                chain.checkpoints.dropBefore(firstSegment);
+                return !isRecord(chain.latest);
+            });
+            // The segment before its index, so a crash in between never brings the records back
+            Files.deleteIfExists(segmentFile(index));
+            Files.deleteIfExists(indexFile(index));
+        } catch (IOException e) {
+            logger.warn("Could not delete dropped activity segment {}", index, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Newest record with an id below `before`: the last checkpoint below it bounds the walk from the next one
+    private long newestBefore(UserChain chain, long before) {
+        LocationList checkpoints = chain.checkpoints;
+        int low = 0;
+        int high = checkpoints.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (readId(checkpoints.get(mid)) < before) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        // Below every checkpoint the walk starts at the oldest one; retention may have dropped older records
+        long location = high + 1 < checkpoints.size() ? checkpoints.get(high + 1) : chain.latest;
+        while (isRecord(location) && readId(location) >= before) {
+            location = previous(location);
+        }
+        return location;
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            segments.stream().filter(segment -> segment != null).forEach(segment -> segment.buffer.force());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Segment activeSegment() throws IOException {
+        return segments.isEmpty() ? roll() : segments.get(segments.size() - 1);
+    }
+
+    private Segment roll() throws IOException {
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).buffer.force();
+            writeIndex(segments.size() - 1);
+        }
+        Segment segment = Segment.open(segmentFile(segments.size()), segmentBytes);
+        segments.add(segment);
+        return segment;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+
+        int indexed = 0;
+        long scanned = 0;
+        for (int i = 0; i < files.size(); i++) {
+            // Numbered by file name, since retention deletes segments from the front
+            String name = files.get(i).getFileName().toString();
+            int index = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            if (i == 0) {
+                firstSegment = index;
+            }
+            while (segments.size() < index) {
+                segments.add(null);
+            }
+            Segment segment = Segment.open(files.get(i), segmentBytes);
+            segments.add(segment);
+
+            // The active segment is always scanned, since appends continue from its last intact record
+            boolean last = i == files.size() - 1;
+            if (!last && loadIndex(index, segment)) {
+                indexed++;
+                continue;
+            }
+            scanned += scan(index, segment, files.get(i), last);
+            if (!last) {
+                writeIndex(index);
+            }
+        }
+        logger.info("Opened {} activity segments in {}: {} from their index files, {} activities scanned",
+                files.size(), dir, indexed, scanned);
+    }
+
+    private long scan(int index, Segment segment, Path file, boolean last) {
+        long records = 0;
+        int position = 0;
+        while (true) {
+            int length = segment.validRecordLength(position);
+            if (length < 0) {
+                break;
+            }
+            ActivityEntity activity = decode(segment.payload(position, length));
+            userIndex.computeIfAbsent(activity.getUserId(), userId -> new UserChain()).add(location(index, position));
+            usersInActiveSegment.add(activity.getUserId());
+            nextId = Math.max(nextId, activity.getId() + 1);
+            position += HEADER_BYTES + length;
+            records++;
+        }
+        segment.writePosition = position;
+
+        if (segment.hasBytesAt(position)) {
+            logger.warn("Activity segment {} is torn or corrupt at byte {}; later records are ignored",
+                    file.getFileName(), position);
+            if (last) {
+                segment.zeroFrom(position);
+            }
+        }
+        return records;
+    }
+
+    // [magic][end position][last id][users], then per user touched by the segment [user id][latest record]
+    // [record count][checkpoints taken in the segment], and a CRC32 of all of it
+    private void writeIndex(int index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(INDEX_MAGIC);
+        out.writeInt(segments.get(index).writePosition);
+        out.writeLong(nextId - 1);
+        out.writeInt(usersInActiveSegment.size());
+        for (String userId : usersInActiveSegment) {
+            UserChain chain = userIndex.get(userId);
+            byte[] user = bytes(userId);
+            out.writeInt(user == null ? -1 : user.length);
+            if (user != null) {
+                out.write(user);
+            }
+            out.writeLong(chain.latest);
+            out.writeLong(chain.count);
+            int first = chain.checkpoints.size();
+            while (first > 0 && segmentOf(chain.checkpoints.get(first - 1)) == index) {
+                first--;
+            }
+            out.writeInt(chain.checkpoints.size() - first);
+            for (int i = first; i < chain.checkpoints.size(); i++) {
+                out.writeLong(chain.checkpoints.get(i));
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        usersInActiveSegment.clear();
+
+        Path file = indexFile(index);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // False when the .idx is missing or damaged, in which case the segment is scanned instead
+    private boolean loadIndex(int index, Segment segment) throws IOException {
+        Path file = indexFile(index);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.capacity() < Integer.BYTES) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), 0, data.capacity() - Integer.BYTES);
+        if ((int) crc.getValue() != data.getInt(data.capacity() - Integer.BYTES)) {
+            logger.warn("Activity index {} is damaged; scanning its segment instead", file.getFileName());
+            return false;
+        }
+
+        try {
+            if (data.getInt() != INDEX_MAGIC) {
+                return false;
+            }
+            int end = data.getInt();
+            long lastId = data.getLong();
+            int users = data.getInt();
+            Map<String, UserChain> changes = new HashMap<>();
+            for (int i = 0; i < users; i++) {
+                String userId = string(data);
+                UserChain change = new UserChain();
+                change.latest = data.getLong();
+                change.count = data.getLong();
+                int checkpoints = data.getInt();
+                for (int j = 0; j < checkpoints; j++) {
+                    change.checkpoints.add(data.getLong());
+                }
+                changes.put(userId, change);
+            }
+
+            changes.forEach((userId, change) -> {
+                UserChain chain = userIndex.computeIfAbsent(userId, id -> new UserChain());
+                chain.latest = change.latest;
+                chain.count = change.count;
+                for (int i = 0; i < change.checkpoints.size(); i++) {
+                    chain.checkpoints.add(change.checkpoints.get(i));
+                }
+            });
+            segment.writePosition = end;
+            nextId = Math.max(nextId, lastId + 1);
+            return true;
+        } catch (BufferUnderflowException e) {
+            return false;
+        }
+    }
+
+    private Path segmentFile(int index) {
+        return dir.resolve(String.format("%010d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private Path indexFile(int index) {
+        return dir.resolve(String.format("%010d%s", index, INDEX_SUFFIX));
+    }
+
+    private ActivityEntity read(long location) {
+        Segment segment = segments.get(segmentOf(location));
+        int position = positionOf(location);
+        return decode(segment.payload(position, segment.buffer.getInt(position)));
+    }
+
+    // The id is the first field of the payload, so cursors compare it without decoding the record
+    private long readId(long location) {
+        return segments.get(segmentOf(location)).buffer.getLong(positionOf(location) + HEADER_BYTES);
+    }
+
+    private long previous(long location) {
+        return segments.get(segmentOf(location)).buffer.getLong(positionOf(location) + HEADER_BYTES + PREVIOUS_OFFSET);
+    }
+
+    // A chain can point into records a damaged segment lost, or into a segment retention dropped; the walk ends there
+    private boolean isRecord(long location) {
+        if (location == NO_RECORD || segmentOf(location) >= segments.size()) {
+            return false;
+        }
+        Segment segment = segments.get(segmentOf(location));
+        return segment != null && positionOf(location) < segment.writePosition;
+    }
+
+    private static long location(int segment, int position) {
+        return ((long) segment << 32) | (position & 0xFFFFFFFFL);
+    }
+
+    private static int segmentOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int positionOf(long location) {
+        return (int) location;
+    }
+
+    private static byte[] encode(long id, ActivityEntity activity) {
+        byte[][] strings = {
+            bytes(activity.getUserId()), bytes(activity.getType()), bytes(activity.getTitle()),
+            bytes(activity.getDescription()), bytes(activity.getPath()), bytes(activity.getExtras())
+        };
+        int size = Long.BYTES * 3 + Integer.BYTES * 2;
+        for (byte[] string : strings) {
+            size += Integer.BYTES + (string == null ? 0 : string.length);
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(size);
+        OffsetDateTime occurredAt = activity.getOccurredAt();
+        payload.putLong(id);
+        payload.putLong(NO_RECORD); // previous record of the user, filled in when the record is placed
+        payload.putLong(occurredAt.toEpochSecond());
+        payload.putInt(occurredAt.getNano());
+        payload.putInt(occurredAt.getOffset().getTotalSeconds());
+        for (byte[] string : strings) {
+            payload.putInt(string == null ? -1 : string.length);
+            if (string != null) {
+                payload.put(string);
+            }
+        }
+        return payload.array();
+    }
+
+    private static ActivityEntity decode(ByteBuffer payload) {
+        long id = payload.getLong();
+        payload.getLong(); // previous record of the user
+        long epochSecond = payload.getLong();
+        int nano = payload.getInt();
+        ZoneOffset offset = ZoneOffset.ofTotalSeconds(payload.getInt());
+        String userId = string(payload);
+        String type = string(payload);
+        String title = string(payload);
+        String description = string(payload);
+        String path = string(payload);
+        String extras = string(payload);
+
+        ActivityEntity activity = new ActivityEntity(userId, type, title, description, path,
+                OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nano), offset));
+        activity.setId(id);
+        activity.setExtras(extras);
+        return activity;
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segment {
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+
+        private Segment(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        // Existing segments keep the size they were created with
+        static Segment open(Path file, int segmentBytes) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = Math.max(channel.size(), segmentBytes);
+                return new Segment(channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        // Leaves room for the zero length that terminates the segment
+        boolean fits(int payloadLength) {
+            return (long) writePosition + HEADER_BYTES + payloadLength + HEADER_BYTES <= buffer.capacity();
+        }
+
+        // Payload first, header last, so a crash mid-append never leaves a valid-looking header
+        int append(byte[] payload) {
+            int position = writePosition;
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            buffer.put(position + HEADER_BYTES, payload);
+            buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+            buffer.putInt(position, payload.length);
+            writePosition = position + HEADER_BYTES + payload.length;
+            return position;
+        }
+
+        // Length of an intact record at position, or -1 at the end of the segment or a bad record
+        int validRecordLength(int position) {
+            if (position + HEADER_BYTES > buffer.capacity()) {
+                return -1;
+            }
+            int length = buffer.getInt(position);
+            if (length <= 0 || (long) position + HEADER_BYTES + length > buffer.capacity()) {
+                return -1;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            return (int) crc.getValue() == buffer.getInt(position + Integer.BYTES) ? length : -1;
+        }
+
+        ByteBuffer payload(int position, int length) {
+            return buffer.slice(position + HEADER_BYTES, length);
+        }
+
+        boolean hasBytesAt(int position) {
+            return position + Integer.BYTES <= buffer.capacity() && buffer.getInt(position) != 0;
+        }
+
+        void zeroFrom(int position) {
+            byte[] zeros = new byte[8192];
+            for (int offset = position; offset < buffer.capacity(); offset += zeros.length) {
+                buffer.put(offset, zeros, 0, Math.min(zeros.length, buffer.capacity() - offset));
+            }
+            buffer.force();
+        }
+    }
+
+    private record SummaryKey(String userId, LocalDate day, String kind) {}
+
+    // Sparse index of one user's chain: the newest record and every CHECKPOINT_INTERVAL-th record from the oldest
+    private static final class UserChain {
+        private long latest = NO_RECORD;
+        private long count;
+        private final LocationList checkpoints = new LocationList();
+
+        void add(long location) {
+            if (count % CHECKPOINT_INTERVAL == 0) {
+                checkpoints.add(location);
+            }
+            latest = location;
+            count++;
+        }
+    }
+
+    // Growable array of packed (segment, position) locations, in append order
+    private static final class LocationList {
+        private long[] locations = new long[8];
+        private int size;
+
+        void add(long location) {
+            if (size == locations.length) {
+                locations = Arrays.copyOf(locations, size * 2);
+            }
+            locations[size++] = location;
+        }
+
+        long get(int index) {
+            return locations[index];
+        }
+
+        // Forgets the leading locations in segments before the given one
+        void dropBefore(int segment) {
+            int first = 0;
+            while (first < size && segmentOf(locations[first]) < segment) {
+                first++;
+            }
+            System.arraycopy(locations, first, locations, 0, size - first);
+            size -= first;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package app.consumer;
+
+import app.model.ActivityEntity;
+import app.repository.ActivityRepository;
+import app.repository.JpaActivityLog;
+import app.service.ActivityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.OffsetDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventConsumerTest {
+
+    @Mock
+    private ActivityRepository activityRepository;
+
+    private EventConsumer eventConsumer;
+
+    @BeforeEach
+    void setUp() {
+        eventConsumer = new EventConsumer(new JpaActivityLog(activityRepository), null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void consumeUserRegistered_SavesWholeBatchAtOnce() {
+        eventConsumer.consumeUserRegistered(List.of(
+                "{\"userId\":\"1\",\"eventId\":\"100\",\"eventTitle\":\"Meetup\"}",
+                "{\"userId\":\"2\",\"eventId\":\"100\",\"eventTitle\":\"Meetup\"}",
+                "{\"userId\":\"3\",\"eventId\":\"101\",\"eventTitle\":\"Workshop\"}"));
+
+        ArgumentCaptor<List<ActivityEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(activityRepository, times(1)).saveAll(saved.capture());
+        assertEquals(List.of("1", "2", "3"), saved.getValue().stream().map(ActivityEntity::getUserId).toList());
+        assertEquals("/events/101/register", saved.getValue().get(2).getPath());
+        assertEquals("USER_REGISTERED", saved.getValue().get(2).getType());
+        verify(activityRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void consumeEventCreated_SkipsMalformedMessages() {
+        eventConsumer.consumeEventCreated(List.of(
+                "{not json",
+                "{\"eventId\":\"100\"}",
+                "{\"eventId\":\"100\",\"title\":\"Meetup\",\"createdBy\":\"7\"}"));
+
+        ArgumentCaptor<List<ActivityEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(activityRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals("7", saved.getValue().get(0).getUserId());
+    }
+
+    @Test
+    void consumeEventCapacityReached_WithOnlyMalformedMessages_SavesNothing() {
+        eventConsumer.consumeEventCapacityReached(List.of("{not json"));
+
+        verifyNoInteractions(activityRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void consumeClientActivity_MapsQueuedRequestActivities() {
+        EventConsumer consumer = new EventConsumer(new JpaActivityLog(activityRepository),
+                new ActivityService(new JpaActivityLog(activityRepository)));
+
+        consumer.consumeClientActivity(List.of(
+                "{\"userId\":\"5\",\"title\":\"EVENT_VIEW\",\"description\":\"User viewed event details\","
+                    + "\"path\":\"/events/100\",\"timestamp\":\"2026-01-01T10:00:00Z\"}",
+                "{\"title\":\"EVENT_VIEW\"}",
+                "{\"userId\":\"anonymous\",\"title\":\"EVENTS_VIEW_ALL\",\"path\":\"/events\",\"page\":2}"));
+
+        ArgumentCaptor<List<ActivityEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(activityRepository, times(1)).saveAll(saved.capture());
+        assertEquals(List.of("5", "anonymous"), saved.getValue().stream().map(ActivityEntity::getUserId).toList());
+        assertEquals("EVENT_VIEW", saved.getValue().get(0).getTitle());
+        assertEquals(OffsetDateTime.parse("2026-01-01T10:00:00Z"), saved.getValue().get(0).getOccurredAt());
+        assertEquals("{\"page\":2}", saved.getValue().get(1).getExtras());
+    }
+}
@@ -0,0 +1,87 @@
+package app.controller;
+
+import app.model.ActivityDto;
+import app.model.ActivityEntity;
+import app.repository.ActivityRepository;
+import app.repository.JpaActivityLog;
+import app.service.ActivityRetentionService;
+import app.service.ActivityService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ActivityController.class)
+@Import({ActivityService.class, JpaActivityLog.class})
+class ActivityControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ActivityRepository activityRepository;
+
+    @MockBean
+    private ActivityRetentionService retentionService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logActivities_WithJsonArray_SavesBatch() throws Exception {
+        mockMvc.perform(post("/api/v1/activities/batch")
+                .header("Authorization", "Bearer 1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"title\":\"EVENT_VIEW\",\"path\":\"/events/100\"},{\"title\":\"EVENT_VIEW\",\"userId\":\"2\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.saved").value(2));
+
+        ArgumentCaptor<List<ActivityEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(activityRepository).saveAll(saved.capture());
+        assertEquals(List.of("1", "2"), saved.getValue().stream().map(ActivityEntity::getUserId).toList());
+    }
+
+    @Test
+    void logActivities_WithNdjson_SavesBatch() throws Exception {
+        mockMvc.perform(post("/api/v1/activities/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"userId\":\"1\",\"title\":\"EVENT_VIEW\"}\n{\"userId\":\"1\",\"title\":\"EVENT_CREATE\"}\n"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.saved").value(2));
+    }
+
+    @Test
+    void logActivities_WithMalformedBody_ReturnsBadRequestAndSavesNothing() throws Exception {
+        mockMvc.perform(post("/api/v1/activities/batch")
+                .header("Authorization", "1")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"title\":\"EVENT_VIEW\"}\n{not json\n"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(activityRepository);
+    }
+
+    @Test
+    void exportActivities_StreamsNdjson() throws Exception {
+        when(activityRepository.streamAll()).thenReturn(Stream.of(
+                new ActivityDto(1L, "1", null, "EVENT_VIEW", null, "/events/1", OffsetDateTime.parse("2025-01-01T10:00:00Z"), null),
+                new ActivityDto(2L, "2", null, "EVENT_VIEW", null, "/events/2", OffsetDateTime.parse("2025-01-01T10:00:00Z"), null)));
+
+        String body = mockMvc.perform(get("/api/v1/activities/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(2, body.lines().count());
+        assertTrue(body.lines().allMatch(line -> line.startsWith("{\"id\":")));
+    }
+}
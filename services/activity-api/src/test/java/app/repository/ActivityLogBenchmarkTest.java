@@ -0,0 +1,102 @@
+package app.repository;
+
+import app.model.ActivityEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Ingest and per-user scan throughput of the two activity backends on the same workload: ACTIVITIES
+// activities for USERS users appended in batches of BATCH_SIZE, then every user's history read back
+// newest first a page at a time. The JPA side runs against embedded H2, which flatters it compared with
+// H2 over TCP in the real deployment. Only runs with -Pbenchmark.
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ActivityLogBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogBenchmarkTest.class);
+
+    private static final int ACTIVITIES = 20_000;
+    private static final int USERS = 100;
+    private static final int BATCH_SIZE = 500;
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @TempDir
+    Path dir;
+
+    // Runs outside a test transaction so JPA really commits; leave the shared database empty
+    @AfterEach
+    void cleanUp() {
+        activityRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void segmentLog_AppendsAndScansFasterThanJpa() throws Exception {
+        JpaActivityLog jpa = new JpaActivityLog(activityRepository);
+        SegmentActivityLog segment = new SegmentActivityLog(dir.resolve("timed").toString(), 64 * 1024 * 1024, false);
+
+        // Warm up both paths before timing
+        append(jpa, 2_000);
+        append(new SegmentActivityLog(dir.resolve("warm-up").toString(), 64 * 1024 * 1024, false), 2_000);
+        activityRepository.deleteAllInBatch();
+
+        double jpaAppend = append(jpa, ACTIVITIES);
+        double segmentAppend = append(segment, ACTIVITIES);
+        double jpaScan = scan(jpa);
+        double segmentScan = scan(segment);
+
+        logger.info("{} activities, {} users: append jpa {}/s, segment {}/s; per-user scan jpa {}/s, segment {}/s",
+            ACTIVITIES, USERS, Math.round(jpaAppend), Math.round(segmentAppend), Math.round(jpaScan), Math.round(segmentScan));
+        assertTrue(segmentAppend > jpaAppend, "segment " + segmentAppend + "/s vs jpa " + jpaAppend + "/s");
+        assertTrue(segmentScan > jpaScan, "segment " + segmentScan + "/s vs jpa " + jpaScan + "/s");
+    }
+
+    // Activities appended per second
+    private static double append(ActivityLog log, int count) {
+        long start = System.nanoTime();
+        List<ActivityEntity> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            batch.add(new ActivityEntity(String.valueOf(i % USERS), "EVENT_VIEW", "EVENT_VIEW",
+                "User viewed event details", "/events/" + i, OffsetDateTime.now()));
+            if (batch.size() == BATCH_SIZE) {
+                log.appendAll(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            log.appendAll(batch);
+        }
+        return count / ((System.nanoTime() - start) / 1e9);
+    }
+
+    // Activities read back per second, paging through every user's full history
+    private static double scan(ActivityLog log) {
+        long start = System.nanoTime();
+        int read = 0;
+        for (int user = 0; user < USERS; user++) {
+            Long before = null;
+            List<ActivityEntity> page;
+            do {
+                page = log.findPage(String.valueOf(user), null, before, PAGE_SIZE);
+                read += page.size();
+                before = page.isEmpty() ? null : page.get(page.size() - 1).getId();
+            } while (page.size() == PAGE_SIZE);
+        }
+        assertEquals(ACTIVITIES, read);
+        return read / ((System.nanoTime() - start) / 1e9);
+    }
+}
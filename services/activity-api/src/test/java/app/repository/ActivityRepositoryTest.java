@@ -0,0 +1,70 @@
+package app.repository;
+
+import app.model.ActivityDto;
+import app.model.ActivityEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ActivityRepositoryTest {
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Test
+    void findPage_WalksOneUsersHistoryNewestFirst() {
+        for (int i = 0; i < 5; i++) {
+            activityRepository.save(activity("1", "EVENT_VIEW", "/events/" + i));
+            activityRepository.save(activity("2", "EVENT_VIEW", "/events/" + i));
+        }
+
+        List<ActivityEntity> first = activityRepository.findPage("1", null, null, PageRequest.of(0, 2));
+        List<ActivityEntity> second = activityRepository.findPage("1", null, first.get(1).getId(), PageRequest.of(0, 2));
+        List<ActivityEntity> last = activityRepository.findPage("1", null, second.get(1).getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of("/events/4", "/events/3"), first.stream().map(ActivityEntity::getPath).toList());
+        assertEquals(List.of("/events/2", "/events/1"), second.stream().map(ActivityEntity::getPath).toList());
+        assertEquals(List.of("/events/0"), last.stream().map(ActivityEntity::getPath).toList());
+        assertTrue(first.stream().allMatch(activity -> "1".equals(activity.getUserId())));
+    }
+
+    @Test
+    void findPage_FiltersByType() {
+        activityRepository.save(activity("1", "EVENT_VIEW", "/events/1"));
+        activityRepository.save(activity("1", "USER_REGISTERED", "/events/1/register"));
+        activityRepository.save(activity("1", "EVENT_VIEW", "/events/2"));
+
+        List<ActivityEntity> registrations = activityRepository.findPage("1", "USER_REGISTERED", null, PageRequest.of(0, 10));
+
+        assertEquals(List.of("/events/1/register"), registrations.stream().map(ActivityEntity::getPath).toList());
+    }
+
+    @Test
+    void streamAll_ProjectsEveryRowInIdOrder() {
+        ActivityEntity first = activity("1", "EVENT_VIEW", "/events/1");
+        first.setExtras("{\"eventId\":\"1\"}");
+        activityRepository.save(first);
+        activityRepository.save(activity("2", "USER_REGISTERED", "/events/1/register"));
+        activityRepository.save(activity("1", "EVENT_VIEW", "/events/2"));
+
+        List<ActivityDto> exported;
+        try (Stream<ActivityDto> activities = activityRepository.streamAll()) {
+            exported = activities.toList();
+        }
+
+        assertEquals(List.of("/events/1", "/events/1/register", "/events/2"),
+                exported.stream().map(ActivityDto::getPath).toList());
+        assertEquals("{\"eventId\":\"1\"}", exported.get(0).getExtras());
+        assertEquals("USER_REGISTERED", exported.get(1).getType());
+    }
+
+    private static ActivityEntity activity(String userId, String type, String path) {
+        return new ActivityEntity(userId, type, null, "description", path, OffsetDateTime.now());
+    }
+}
@@ -0,0 +1,296 @@
+package app.repository;
+
+import app.model.ActivityDto;
+import app.model.ActivityEntity;
+import app.model.ActivitySummaryEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentActivityLogTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findPage_WalksOneUsersHistoryNewestFirst() throws IOException {
+        SegmentActivityLog log = open();
+        for (int i = 0; i < 5; i++) {
+            log.appendAll(List.of(activity("1", "EVENT_VIEW", "/events/" + i), activity("2", "EVENT_VIEW", "/events/" + i)));
+        }
+
+        List<ActivityEntity> first = log.findPage("1", null, null, 2);
+        List<ActivityEntity> second = log.findPage("1", null, first.get(1).getId(), 2);
+        List<ActivityEntity> last = log.findPage("1", null, second.get(1).getId(), 2);
+
+        assertEquals(List.of("/events/4", "/events/3"), paths(first));
+        assertEquals(List.of("/events/2", "/events/1"), paths(second));
+        assertEquals(List.of("/events/0"), paths(last));
+        assertTrue(log.findPage("3", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void findPage_FiltersByType() throws IOException {
+        SegmentActivityLog log = open();
+        log.append(activity("1", "EVENT_VIEW", "/events/1"));
+        log.append(activity("1", "USER_REGISTERED", "/events/1/register"));
+        log.append(activity("1", "EVENT_VIEW", "/events/2"));
+
+        assertEquals(List.of("/events/1/register"), paths(log.findPage("1", "USER_REGISTERED", null, 10)));
+    }
+
+    @Test
+    void append_RoundTripsEveryField() throws IOException {
+        SegmentActivityLog log = open();
+        ActivityEntity activity = new ActivityEntity("1", null, "EVENT_VIEW", "Viewed ünïcödé event", "/events/1",
+                OffsetDateTime.parse("2026-01-01T10:15:30.123456789+11:00"));
+        activity.setExtras("{\"eventId\":\"1\"}");
+
+        Long id = log.append(activity).getId();
+        ActivityEntity read = log.findByUserId("1").get(0);
+
+        assertEquals(id, read.getId());
+        assertNull(read.getType());
+        assertEquals("EVENT_VIEW", read.getTitle());
+        assertEquals("Viewed ünïcödé event", read.getDescription());
+        assertEquals(OffsetDateTime.parse("2026-01-01T10:15:30.123456789+11:00"), read.getOccurredAt());
+        assertEquals("{\"eventId\":\"1\"}", read.getExtras());
+    }
+
+    @Test
+    void append_RollsToNewSegmentsWhenFull() throws IOException {
+        SegmentActivityLog log = open();
+        for (int i = 0; i < 200; i++) {
+            log.append(activity("1", "EVENT_VIEW", "/events/" + i));
+        }
+
+        assertTrue(segmentFiles().size() > 1);
+        List<ActivityEntity> all = log.findByUserId("1");
+        assertEquals(200, all.size());
+        assertEquals("/events/199", all.get(0).getPath());
+        assertEquals("/events/0", all.get(199).getPath());
+    }
+
+    @Test
+    void recover_RebuildsIndexAndContinuesIdsAfterRestart() throws IOException {
+        SegmentActivityLog log = open();
+        for (int i = 0; i < 120; i++) {
+            log.append(activity(String.valueOf(i % 3), "EVENT_VIEW", "/events/" + i));
+        }
+        long lastId = log.findByUserId("2").get(0).getId();
+        log.close();
+
+        SegmentActivityLog reopened = open();
+        ActivityEntity next = reopened.append(activity("2", "EVENT_VIEW", "/events/after-restart"));
+
+        assertEquals(40, reopened.findByUserId("0").size());
+        assertEquals(lastId + 1, next.getId());
+        assertEquals("/events/after-restart", reopened.findByUserId("2").get(0).getPath());
+        assertEquals("/events/119", reopened.findByUserId("2").get(1).getPath());
+    }
+
+    @Test
+    void recover_StopsAtCorruptRecordAndAppendsOverIt() throws IOException {
+        SegmentActivityLog log = open();
+        log.append(activity("1", "EVENT_VIEW", "/events/1"));
+        log.append(activity("1", "EVENT_VIEW", "/events/2"));
+        log.append(activity("1", "EVENT_VIEW", "/events/3"));
+        log.close();
+
+        // Flip a payload byte of the second record, as a torn write would leave it
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            int secondRecord = 2 * Integer.BYTES + header.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), secondRecord + 2 * Integer.BYTES + 20);
+        }
+
+        SegmentActivityLog reopened = open();
+        assertEquals(List.of("/events/1"), paths(reopened.findByUserId("1")));
+
+        reopened.append(activity("1", "EVENT_VIEW", "/events/4"));
+        reopened.close();
+        assertEquals(List.of("/events/4", "/events/1"), paths(open().findByUserId("1")));
+    }
+
+    @Test
+    void findPage_PagesWithCursorsAcrossCheckpointsAndSegments() throws IOException {
+        SegmentActivityLog log = open();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            ActivityEntity activity = log.append(activity(String.valueOf(i % 3), "EVENT_VIEW", "/events/" + i));
+            if (activity.getUserId().equals("1")) {
+                ids.add(0, activity.getId());
+            }
+        }
+        assertTrue(segmentFiles().size() > 5);
+
+        List<Long> paged = new ArrayList<>();
+        Long before = null;
+        List<ActivityEntity> page;
+        do {
+            page = log.findPage("1", null, before, 7);
+            page.forEach(activity -> paged.add(activity.getId()));
+            before = page.isEmpty() ? null : page.get(page.size() - 1).getId();
+        } while (page.size() == 7);
+
+        assertEquals(ids, paged);
+        // A cursor that is not one of the user's own ids lands on the next older record
+        assertEquals(ids.get(101), log.findPage("1", null, ids.get(100), 1).get(0).getId());
+        assertEquals(ids.subList(0, 3), log.findPage("1", null, Long.MAX_VALUE, 3).stream().map(ActivityEntity::getId).toList());
+        assertTrue(log.findPage("1", null, ids.get(ids.size() - 1), 10).isEmpty());
+    }
+
+    @Test
+    void recover_LoadsSealedSegmentsFromTheirIndexFiles() throws IOException {
+        SegmentActivityLog log = open();
+        for (int i = 0; i < 300; i++) {
+            log.append(activity(String.valueOf(i % 2), "EVENT_VIEW", "/events/" + i));
+        }
+        log.close();
+        assertEquals(segmentFiles().size() - 1, files(".idx").size());
+
+        // Break the first record's checksum: a scan would stop there, the index file skips the scan
+        try (FileChannel channel = FileChannel.open(segmentFiles().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 0}), Integer.BYTES);
+        }
+
+        SegmentActivityLog reopened = open();
+        assertEquals(150, reopened.findByUserId("0").size());
+        assertEquals("/events/0", reopened.findByUserId("0").get(149).getPath());
+        assertEquals(301, reopened.append(activity("1", "EVENT_VIEW", "/events/after-restart")).getId());
+    }
+
+    @Test
+    void recover_ScansASealedSegmentWithoutIndexAndWritesIt() throws IOException {
+        SegmentActivityLog log = open();
+        for (int i = 0; i < 300; i++) {
+            log.append(activity(String.valueOf(i % 2), "EVENT_VIEW", "/events/" + i));
+        }
+        log.close();
+        Path index = files(".idx").get(1);
+        Files.delete(index);
+
+        SegmentActivityLog reopened = open();
+
+        assertTrue(Files.exists(index));
+        assertEquals(150, reopened.findByUserId("1").size());
+        assertEquals("/events/299", reopened.findByUserId("1").get(0).getPath());
+        assertEquals(List.of("/events/3", "/events/1"),
+                paths(reopened.findPage("1", null, reopened.findByUserId("1").get(147).getId(), 10)));
+    }
+
+    @Test
+    void forEach_HandsOverEveryActivityInIdOrder() throws IOException {
+        SegmentActivityLog log = open();
+        for (int i = 0; i < 300; i++) {
+            log.append(activity(String.valueOf(i % 3), "EVENT_VIEW", "/events/" + i));
+        }
+        assertTrue(segmentFiles().size() > 1);
+
+        List<ActivityDto> all = new ArrayList<>();
+        log.forEach(all::add);
+
+        assertEquals(300, all.size());
+        for (int i = 0; i < 300; i++) {
+            assertEquals(i + 1L, all.get(i).getId());
+            assertEquals("/events/" + i, all.get(i).getPath());
+        }
+    }
+
+    @Test
+    void nextCompaction_DropsSealedSegmentsOlderThanTheCutoff() throws IOException {
+        SegmentActivityLog log = open();
+        OffsetDateTime old = OffsetDateTime.parse("2026-01-10T12:00:00Z");
+        OffsetDateTime recent = OffsetDateTime.parse("2026-03-10T12:00:00Z");
+        for (int i = 0; i < 200; i++) {
+            log.append(activity(String.valueOf(i % 2), "/events/" + i, old));
+        }
+        for (int i = 200; i < 260; i++) {
+            log.append(activity(String.valueOf(i % 2), "/events/" + i, recent));
+        }
+        int segmentsBefore = segmentFiles().size();
+
+        long compacted = 0;
+        Optional<ActivityLog.Compaction> compaction;
+        while ((compaction = log.nextCompaction(LocalDate.parse("2026-02-01"))).isPresent()) {
+            for (ActivitySummaryEntity summary : compaction.get().summaries()) {
+                assertEquals(LocalDate.parse("2026-01-10"), summary.getDay());
+                assertEquals("EVENT_VIEW", summary.getKind());
+            }
+            compacted += compaction.get().activities();
+            compaction.get().drop().run();
+        }
+
+        // The segment holding the first recent record stays, with the old records before it
+        assertTrue(compacted > 0 && compacted < 200);
+        assertTrue(segmentFiles().size() < segmentsBefore);
+        assertEquals(segmentFiles().size() - 1, files(".idx").size());
+        List<ActivityDto> remaining = new ArrayList<>();
+        log.forEach(remaining::add);
+        assertEquals(260 - compacted, remaining.size());
+        assertEquals(compacted + 1, remaining.get(0).getId());
+
+        List<ActivityEntity> user0 = log.findByUserId("0");
+        assertEquals(remaining.stream().filter(activity -> activity.getUserId().equals("0")).count(), user0.size());
+        assertEquals("/events/258", user0.get(0).getPath());
+        assertEquals(List.of(user0.get(user0.size() - 1).getPath()),
+                paths(log.findPage("0", null, user0.get(user0.size() - 2).getId(), 10)));
+        assertTrue(log.findPage("0", null, compacted, 10).isEmpty());
+
+        log.close();
+        SegmentActivityLog reopened = open();
+        assertEquals(user0.size(), reopened.findByUserId("0").size());
+        assertEquals(261, reopened.append(activity("1", "EVENT_VIEW", "/events/after-restart")).getId());
+    }
+
+    @Test
+    void nextCompaction_NeverDropsTheActiveSegment() throws IOException {
+        SegmentActivityLog log = open();
+        log.append(activity("1", "/events/1", OffsetDateTime.parse("2026-01-10T12:00:00Z")));
+
+        assertTrue(log.nextCompaction(LocalDate.parse("2026-02-01")).isEmpty());
+        assertEquals(1, log.findByUserId("1").size());
+    }
+
+    private SegmentActivityLog open() throws IOException {
+        return new SegmentActivityLog(dir.toString(), SEGMENT_BYTES, false);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        return files(".seg");
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private static List<String> paths(List<ActivityEntity> activities) {
+        return new ArrayList<>(activities.stream().map(ActivityEntity::getPath).toList());
+    }
+
+    private static ActivityEntity activity(String userId, String type, String path) {
+        return new ActivityEntity(userId, type, null, "description", path, OffsetDateTime.now());
+    }
+
+    private static ActivityEntity activity(String userId, String path, OffsetDateTime occurredAt) {
+        return new ActivityEntity(userId, "EVENT_VIEW", null, "description", path, occurredAt);
+    }
+}
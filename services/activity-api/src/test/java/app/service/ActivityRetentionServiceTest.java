@@ -0,0 +1,105 @@
+package app.service;
+
+import app.exception.ServiceException;
+import app.model.ActivityEntity;
+import app.model.ActivitySummaryEntity;
+import app.repository.ActivityRepository;
+import app.repository.ActivitySummaryRepository;
+import app.repository.JpaActivityLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ActivityRetentionServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2026-03-31");
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivitySummaryRepository summaryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ActivityRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        retentionService = new ActivityRetentionService(new JpaActivityLog(activityRepository), summaryRepository, transactionManager, 30, 90);
+    }
+
+    @Test
+    void applyRetention_RollsExpiredDaysIntoSummariesAndKeepsHotDays() {
+        activityRepository.save(activity("1", "EVENT_VIEW", null, "2026-02-01T09:00:00Z"));
+        activityRepository.save(activity("1", "EVENT_VIEW", null, "2026-02-01T17:30:00Z"));
+        activityRepository.save(activity("1", null, "EVENTS_VIEW_ALL", "2026-02-01T12:00:00Z"));
+        activityRepository.save(activity("2", "EVENT_VIEW", null, "2026-02-01T23:59:00+01:00"));
+        activityRepository.save(activity("1", "EVENT_VIEW", null, "2026-03-30T10:00:00Z"));
+
+        retentionService.applyRetention(TODAY);
+
+        List<ActivityEntity> remaining = activityRepository.findAll();
+        assertEquals(1, remaining.size());
+        assertEquals(LocalDate.parse("2026-03-30"), remaining.get(0).getBucketDay());
+
+        List<ActivitySummaryEntity> summaries = summaryRepository.findByUserIdAndDayBetweenOrderByDayDescKindAsc(
+                "1", LocalDate.parse("2026-01-01"), TODAY);
+        assertEquals(List.of("EVENTS_VIEW_ALL", "EVENT_VIEW"), summaries.stream().map(ActivitySummaryEntity::getKind).toList());
+        ActivitySummaryEntity views = summaries.get(1);
+        assertEquals(2, views.getCount());
+        assertEquals(OffsetDateTime.parse("2026-02-01T09:00:00Z").toInstant(), views.getFirstAt().toInstant());
+        assertEquals(OffsetDateTime.parse("2026-02-01T17:30:00Z").toInstant(), views.getLastAt().toInstant());
+
+        // Bucketed by UTC day, so 23:59 at +01:00 is still 1 February
+        assertEquals(LocalDate.parse("2026-02-01"),
+                summaryRepository.findByUserIdAndDayAndKind("2", LocalDate.parse("2026-02-01"), "EVENT_VIEW").orElseThrow().getDay());
+    }
+
+    @Test
+    void applyRetention_FoldsLateActivitiesIntoExistingSummary() {
+        activityRepository.save(activity("1", "EVENT_VIEW", null, "2026-02-01T09:00:00Z"));
+        retentionService.applyRetention(TODAY);
+
+        activityRepository.save(activity("1", "EVENT_VIEW", null, "2026-02-01T20:00:00Z"));
+        retentionService.applyRetention(TODAY);
+
+        ActivitySummaryEntity views = summaryRepository
+                .findByUserIdAndDayAndKind("1", LocalDate.parse("2026-02-01"), "EVENT_VIEW").orElseThrow();
+        assertEquals(2, views.getCount());
+        assertEquals(OffsetDateTime.parse("2026-02-01T20:00:00Z").toInstant(), views.getLastAt().toInstant());
+        assertEquals(1, summaryRepository.count());
+    }
+
+    @Test
+    void applyRetention_DropsSummariesPastTheirWindow() {
+        summaryRepository.save(new ActivitySummaryEntity("1", LocalDate.parse("2025-12-01"), "EVENT_VIEW", 4, null, null));
+        summaryRepository.save(new ActivitySummaryEntity("1", LocalDate.parse("2026-01-15"), "EVENT_VIEW", 2, null, null));
+
+        retentionService.applyRetention(TODAY);
+
+        assertEquals(List.of(LocalDate.parse("2026-01-15")),
+                summaryRepository.findAll().stream().map(ActivitySummaryEntity::getDay).toList());
+    }
+
+    @Test
+    void getSummaries_WithInvertedRange_ThrowsBadRequest() {
+        ServiceException e = assertThrows(ServiceException.class,
+                () -> retentionService.getSummaries("1", TODAY, TODAY.minusDays(1)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    private static ActivityEntity activity(String userId, String type, String title, String occurredAt) {
+        return new ActivityEntity(userId, type, title, "description", "/events", OffsetDateTime.parse(occurredAt));
+    }
+}
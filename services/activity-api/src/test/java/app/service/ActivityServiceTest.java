@@ -4,16 +4,26 @@ import app.exception.ServiceException;
 import app.model.ActivityDto;
 import app.model.ActivityEntity;
 import app.repository.ActivityRepository;
+import app.repository.JpaActivityLog;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -24,14 +34,15 @@ class ActivityServiceTest {
     @Mock
     private ActivityRepository activityRepository;
 
-    @InjectMocks
     private ActivityService activityService;
 
     private ActivityEntity testActivity;
 
     @BeforeEach
     void setUp() {
-        testActivity = new ActivityEntity("1", "{\"eventId\":\"100\",\"action\":\"created\"}");
+        activityService = new ActivityService(new JpaActivityLog(activityRepository));
+        testActivity = new ActivityEntity("1", "EVENT_CREATED", null, "Event 'Meetup' was created",
+                "/events/100", OffsetDateTime.parse("2025-01-01T10:00:00Z"));
         testActivity.setId(1L);
     }
 
@@ -63,13 +74,13 @@ class ActivityServiceTest {
 
     @Test
     void getAllActivities_ReturnsAllActivities() throws ServiceException {
-        when(activityRepository.findAll()).thenReturn(Arrays.asList(testActivity));
+        when(activityRepository.streamAll()).thenReturn(Stream.of(new ActivityDto(testActivity)));
 
         List<ActivityDto> activities = activityService.getAllActivities();
 
         assertNotNull(activities);
         assertEquals(1, activities.size());
-        verify(activityRepository).findAll();
+        verify(activityRepository).streamAll();
     }
 
     @Test
@@ -83,4 +94,167 @@ class ActivityServiceTest {
         assertTrue(activities.isEmpty());
         verify(activityRepository).findByUserIdOrderByIdDesc("1");
     }
+
+    @Test
+    void getActivitiesByUserId_WithoutCursor_ReturnsNewestPage() throws ServiceException {
+        when(activityRepository.findPage("1", null, null, PageRequest.of(0, 20)))
+                .thenReturn(Arrays.asList(testActivity));
+
+        List<ActivityDto> activities = activityService.getActivitiesByUserId("1", null, 20);
+
+        assertEquals(1, activities.size());
+        verify(activityRepository, never()).findAll();
+    }
+
+    @Test
+    void getActivitiesByUserId_WithCursorAndType_ReturnsOlderPage() throws ServiceException {
+        when(activityRepository.findPage("1", "EVENT_CREATED", 40L,
+                PageRequest.of(0, ActivityService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(Arrays.asList(testActivity));
+
+        List<ActivityDto> activities = activityService.getActivitiesByUserId("1", "EVENT_CREATED", 40L, null);
+
+        assertEquals(1, activities.size());
+    }
+
+    @Test
+    void getActivitiesByUserId_WithLimitOutOfRange_ThrowsBadRequest() {
+        ServiceException e = assertThrows(ServiceException.class,
+                () -> activityService.getActivitiesByUserId("1", null, ActivityService.MAX_PAGE_SIZE + 1));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+        verifyNoInteractions(activityRepository);
+    }
+
+    @Test
+    void logActivity_StoresKnownFieldsAsColumnsAndTheRestAsExtras() throws ServiceException {
+        Map<String, Object> activityData = new HashMap<>();
+        activityData.put("title", "EVENT_VIEW");
+        activityData.put("description", "User viewed event details");
+        activityData.put("path", "/events/100");
+        activityData.put("timestamp", "2025-01-01T10:00:00+11:00");
+        activityData.put("eventId", "100");
+
+        when(activityRepository.save(any(ActivityEntity.class))).thenReturn(testActivity);
+
+        activityService.logActivity("1", activityData);
+
+        ArgumentCaptor<ActivityEntity> saved = ArgumentCaptor.forClass(ActivityEntity.class);
+        verify(activityRepository).save(saved.capture());
+        assertEquals("EVENT_VIEW", saved.getValue().getTitle());
+        assertEquals("EVENT_VIEW", saved.getValue().getType());
+        assertEquals("/events/100", saved.getValue().getPath());
+        assertEquals(OffsetDateTime.parse("2025-01-01T10:00:00+11:00"), saved.getValue().getOccurredAt());
+        assertEquals("{\"eventId\":\"100\"}", saved.getValue().getExtras());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logActivities_WithClientApiActivity_StoresItsCodeAsType() throws ServiceException {
+        activityService.logActivities(null, List.of(
+                Map.of("userId", "1", "type", "EVENTS_VIEW_ALL", "title", "EVENTS_VIEW_ALL",
+                        "description", "User viewed all events", "path", "/events"),
+                Map.of("userId", "1", "title", "Viewed the events page")));
+
+        ArgumentCaptor<List<ActivityEntity>> entities = ArgumentCaptor.forClass(List.class);
+        verify(activityRepository).saveAll(entities.capture());
+        assertEquals("EVENTS_VIEW_ALL", entities.getValue().get(0).getType());
+        // A free-text title is not mistaken for a code
+        assertNull(entities.getValue().get(1).getType());
+    }
+
+    @Test
+    void getActivitiesByUserId_ReturnsTypedFields() throws ServiceException {
+        when(activityRepository.findByUserIdOrderByIdDesc("1")).thenReturn(Arrays.asList(testActivity));
+
+        ActivityDto activity = activityService.getActivitiesByUserId("1").get(0);
+
+        assertEquals("EVENT_CREATED", activity.getType());
+        assertEquals("/events/100", activity.getPath());
+        assertEquals(OffsetDateTime.parse("2025-01-01T10:00:00Z"), activity.getTimestamp());
+        assertNull(activity.getExtras());
+    }
+
+    @Test
+    void readActivities_AcceptsJsonArray() throws ServiceException {
+        List<Map<String, Object>> batch = activityService.readActivities(body(
+                "[{\"title\":\"EVENT_VIEW\"},{\"title\":\"EVENT_CREATE\",\"userId\":\"2\"}]"));
+
+        assertEquals(2, batch.size());
+        assertEquals("2", batch.get(1).get("userId"));
+    }
+
+    @Test
+    void readActivities_AcceptsNdjson() throws ServiceException {
+        List<Map<String, Object>> batch = activityService.readActivities(body(
+                "{\"title\":\"EVENT_VIEW\"}\n{\"title\":\"EVENT_CREATE\"}\n\n{\"title\":\"EVENTS_VIEW_ALL\"}\n"));
+
+        assertEquals(List.of("EVENT_VIEW", "EVENT_CREATE", "EVENTS_VIEW_ALL"),
+                batch.stream().map(activity -> activity.get("title")).toList());
+    }
+
+    @Test
+    void readActivities_WithMalformedLine_ThrowsBadRequest() {
+        ServiceException e = assertThrows(ServiceException.class,
+                () -> activityService.readActivities(body("{\"title\":\"EVENT_VIEW\"}\n{not json\n")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    void readActivities_OverMaxBatchSize_ThrowsPayloadTooLarge() {
+        String ndjson = "{\"title\":\"EVENT_VIEW\"}\n".repeat(ActivityService.MAX_BATCH_SIZE + 1);
+
+        ServiceException e = assertThrows(ServiceException.class, () -> activityService.readActivities(body(ndjson)));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logActivities_SavesWholeBatchAtOnceFallingBackToCaller() throws ServiceException {
+        int saved = activityService.logActivities("1", List.of(
+                Map.of("title", "EVENT_VIEW", "path", "/events/100"),
+                Map.of("title", "EVENT_VIEW", "userId", "2", "eventId", "100")));
+
+        assertEquals(2, saved);
+        ArgumentCaptor<List<ActivityEntity>> entities = ArgumentCaptor.forClass(List.class);
+        verify(activityRepository, times(1)).saveAll(entities.capture());
+        verify(activityRepository, never()).save(any());
+        assertEquals(List.of("1", "2"), entities.getValue().stream().map(ActivityEntity::getUserId).toList());
+        assertEquals("{\"eventId\":\"100\"}", entities.getValue().get(1).getExtras());
+    }
+
+    @Test
+    void logActivities_WithoutAnyUser_RejectsWholeBatch() {
+        ServiceException e = assertThrows(ServiceException.class, () -> activityService.logActivities(null, List.of(
+                Map.of("title", "EVENT_VIEW", "userId", "2"),
+                Map.of("title", "EVENT_VIEW"))));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+        verifyNoInteractions(activityRepository);
+    }
+
+    @Test
+    void exportActivities_WritesOneJsonDocumentPerLine() throws IOException {
+        when(activityRepository.streamAll()).thenReturn(Stream.of(
+                new ActivityDto(testActivity),
+                new ActivityDto(2L, "2", null, "EVENT_VIEW", null, "/events/100",
+                        OffsetDateTime.parse("2025-01-01T11:00:00Z"), "{\"eventId\":\"100\"}")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = activityService.exportActivities(out);
+
+        assertEquals(2, exported);
+        assertEquals("{\"id\":1,\"userId\":\"1\",\"type\":\"EVENT_CREATED\",\"description\":\"Event 'Meetup' was created\","
+                + "\"path\":\"/events/100\",\"timestamp\":\"2025-01-01T10:00:00Z\"}\n"
+                + "{\"id\":2,\"userId\":\"2\",\"title\":\"EVENT_VIEW\",\"path\":\"/events/100\","
+                + "\"timestamp\":\"2025-01-01T11:00:00Z\",\"extras\":{\"eventId\":\"100\"}}\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(activityRepository, never()).findAll();
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
 }
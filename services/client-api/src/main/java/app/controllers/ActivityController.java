@@ -9,9 +9,9 @@ import io.swagger.v3.oas.annotations.Parameter;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
+import app.models.ActivityDto;
 import app.services.ActivityService;
 import app.utils.ResponseHelper;
-import java.util.Map;
 import java.util.List;
 
 @RestController
@@ -27,21 +27,30 @@ public class ActivityController {
 
     @Operation(
         summary = "Get user activity log",
-        description = "Retrieve the current user's activity history",
+        description = "Retrieve the current user's activity history, newest first. Pass the id of the last activity returned as `before` to fetch the next page.",
         security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Activities retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/my-activity")
     public ResponseEntity<?> getMyActivities(
             @Parameter(hidden = true)
-            @RequestHeader(value = "Authorization", required = true) String token) {
+            @RequestHeader(value = "Authorization", required = true) String token,
+            @Parameter(description = "Only activities older than this activity id")
+            @RequestParam(required = false) Long before,
+            @Parameter(description = "Page size (1-200, default 50)", example = "50")
+            @RequestParam(required = false) Integer limit) {
         String path = "/activity/my-activity";
 
+        if (limit != null && (limit < 1 || limit > ActivityService.MAX_PAGE_SIZE)) {
+            return ResponseHelper.createResponse(HttpStatus.BAD_REQUEST, path, "Limit must be between 1 and " + ActivityService.MAX_PAGE_SIZE + ".", List.of());
+        }
+
         try {
-            List<Map<String, Object>> activities = activityService.getUserActivities(token);
+            List<ActivityDto> activities = activityService.getUserActivities(token, before, limit);
 
             activityService.logActivity(token, "ACTIVITY_VIEW_MY", "User viewed their activity log", path);
             return ResponseHelper.createResponse(HttpStatus.OK, path, "Activities retrieved successfully", activities);
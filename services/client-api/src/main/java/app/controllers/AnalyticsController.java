@@ -1,11 +1,13 @@
 package app.controllers;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -18,19 +20,20 @@ public class AnalyticsController {
 
     private final WebClient eventApiClient;
 
-    public AnalyticsController(WebClient.Builder webClientBuilder) {
-        this.eventApiClient = webClientBuilder.baseUrl("http://localhost:8082").build();
+    public AnalyticsController(WebClient.Builder webClientBuilder,
+                               @Value("${services.event-api:http://localhost:8082}") String eventApiUrl) {
+        this.eventApiClient = webClientBuilder.baseUrl(eventApiUrl).build();
     }
 
     @Operation(
         summary = "Get trending events (Kafka Stream Query)",
         description = """
-            Returns currently trending events based on real-time Kafka stream processing.
+            Returns the K hottest events ranked by registrations in the last 5 minutes.
 
             **Stream Processing Logic:**
             - Consumes `user-registered-event` Kafka topic
-            - Maintains 5-minute sliding window per event
-            - Events with ≥3 registrations flagged as trending
+            - Maintains 5-minute sliding window of Space-Saving heavy-hitter sketches
+            - Answered in constant memory regardless of how many events exist
             - Real-time computation (no database queries)
 
             **Use Case:** Display trending events badge/section on homepage
@@ -41,22 +44,34 @@ public class AnalyticsController {
             content = @Content(mediaType = "application/json",
                 examples = @ExampleObject(value = """
                     {
-                      "trendingEvents": {
-                        "550e8400-e29b-41d4-a716-446655440000": 5,
-                        "660e8400-e29b-41d4-a716-446655440001": 4
-                      },
+                      "trendingEvents": [
+                        {
+                          "eventId": "550e8400-e29b-41d4-a716-446655440000",
+                          "registrations": 5,
+                          "registrationsPerMinute": 1.0
+                        },
+                        {
+                          "eventId": "660e8400-e29b-41d4-a716-446655440001",
+                          "registrations": 4,
+                          "registrationsPerMinute": 0.8
+                        }
+                      ],
                       "windowMinutes": 5,
-                      "threshold": 3,
+                      "k": 2,
                       "timestamp": 1698765432000,
-                      "description": "Events with 3+ registrations in last 5 minutes"
+                      "description": "Top 2 events by registrations in last 5 minutes"
                     }
                     """)))
     })
     @GetMapping("/trending-events")
     @SuppressWarnings("unchecked")
-    public ResponseEntity<Map<String, Object>> getTrendingEvents() {
+    public ResponseEntity<Map<String, Object>> getTrendingEvents(
+            @Parameter(description = "Number of events to return (1-100)", example = "20")
+            @RequestParam(defaultValue = "10") int k) {
         Map<String, Object> response = eventApiClient.get()
-                .uri("/api/v1/analytics/trending-events")
+                .uri(uriBuilder -> uriBuilder.path("/api/v1/analytics/trending-events")
+                        .queryParam("k", k)
+                        .build())
                 .retrieve()
                 .bodyToMono(Map.class)
                 .block();
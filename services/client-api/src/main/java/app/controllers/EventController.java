@@ -12,13 +12,17 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
 import app.models.EventDto;
+import app.models.EventPage;
+import app.models.RegistrationResult;
 import app.services.ActivityService;
 import app.services.EventService;
 import app.utils.ResponseHelper;
 import app.utils.ServiceException;
 import java.util.Map;
 import java.util.List;
+import java.time.OffsetDateTime;
 
 @RestController
 @RequestMapping("/events")
@@ -52,6 +56,40 @@ public class EventController {
         }
     }
 
+    @Operation(summary = "Get a page of events", description = "Retrieve events ordered by start time, one page at a time. Pass the returned nextCursor to fetch the following page.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Events retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/page")
+    public ResponseEntity<?> getEventPage(
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100, default 20)", example = "20")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Only events starting at or after this time", example = "2025-11-15T00:00:00+11:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @Parameter(description = "Only events starting before this time", example = "2025-11-30T00:00:00+11:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @Parameter(description = "Only events at this location", example = "Community Center, Room 201")
+            @RequestParam(required = false) String location,
+            @Parameter(description = "Only events with seats still available")
+            @RequestParam(defaultValue = "false") boolean hasFreeSeats) {
+        String path = "/events/page";
+
+        try {
+            EventPage page = eventService.getEventPage(cursor, limit, from, to, location, hasFreeSeats);
+            activityService.logActivity("anonymous", "EVENTS_VIEW_PAGE", "User viewed a page of events", path);
+            return ResponseHelper.createResponse(HttpStatus.OK, path, "Events retrieved successfully", page);
+        } catch (ServiceException e) {
+            activityService.logActivity("anonymous", "EVENTS_VIEW_PAGE_FAILED", "Failed to view events page: " + e.getMessage(), path);
+            HttpStatus statusCode = e.getStatus() == HttpStatus.BAD_REQUEST ? HttpStatus.BAD_REQUEST : HttpStatus.INTERNAL_SERVER_ERROR;
+            String message = statusCode == HttpStatus.BAD_REQUEST ? "Invalid cursor or limit." : "Unable to retrieve events at this time. Please try again later.";
+            return ResponseHelper.createResponse(statusCode, path, message, null);
+        }
+    }
+
     @GetMapping("/{eventId}")
     public ResponseEntity<?> getEvent(@PathVariable String eventId) {
         String path = "/events/" + eventId;
@@ -223,6 +261,7 @@ public class EventController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully registered"),
+        @ApiResponse(responseCode = "202", description = "Event is full; added to the waitlist"),
         @ApiResponse(responseCode = "503", description = "Service temporarily unavailable")
     })
     @PostMapping("/{eventId}/register")
@@ -234,9 +273,13 @@ public class EventController {
         String path = "/events/" + eventId + "/register";
 
         try {
-            eventService.registerForEvent(token, eventId);
+            RegistrationResult result = eventService.registerForEvent(token, eventId);
+            if (result.isWaitlisted()) {
+                activityService.logActivity(token, "EVENT_WAITLIST_JOIN", "User joined an event waitlist", path);
+                return ResponseHelper.createResponse(HttpStatus.ACCEPTED, path, "Event is full; added to the waitlist", result);
+            }
             activityService.logActivity(token, "EVENT_REGISTER", "User registered for an event", path);
-            return ResponseHelper.createResponse(HttpStatus.OK, path, "Successfully registered for event", null);
+            return ResponseHelper.createResponse(HttpStatus.OK, path, "Successfully registered for event", result);
         } catch (ServiceException e) {
             activityService.logActivity(token, "EVENT_REGISTER_FAILED", "Event registration failed: " + e.getMessage(), path);
             return ResponseHelper.createResponse(e.getStatus(), path, "Unable to register for event at this time. Please try again later.", null);
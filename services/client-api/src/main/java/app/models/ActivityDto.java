@@ -1,29 +1,44 @@
 package app.models;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.OffsetDateTime;
+import java.util.Map;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ActivityDto {
 
     private Long id;
     private String userId;
-    private String activityObject;
+    private String type;
+    private String title;
+    private String description;
+    private String path;
     private OffsetDateTime timestamp;
+    private Map<String, Object> extras;
 
     public ActivityDto() {}
 
-    public ActivityDto(String activityObject) {
-        this.activityObject = activityObject;
-    }
-
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
 
-    public String getActivityObject() { return activityObject; }
-    public void setActivityObject(String activityObject) { this.activityObject = activityObject; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
 
     public OffsetDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(OffsetDateTime timestamp) { this.timestamp = timestamp; }
-}
\ No newline at end of file
+
+    public Map<String, Object> getExtras() { return extras; }
+    public void setExtras(Map<String, Object> extras) { this.extras = extras; }
+}
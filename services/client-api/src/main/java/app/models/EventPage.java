@@ -0,0 +1,28 @@
+package app.models;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "One page of events ordered by start time")
+public class EventPage {
+    @Schema(description = "Events on this page")
+    private List<EventDto> events;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Opaque cursor for the next page; absent on the last page", example = "MjAyNS0xMS0xNVQxODowMCswMToxMXw1NTBl")
+    private String nextCursor;
+
+    public EventPage() {}
+
+    public EventPage(List<EventDto> events, String nextCursor) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<EventDto> getEvents() { return events; }
+    public void setEvents(List<EventDto> events) { this.events = events; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,34 @@
+package app.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of a registration request")
+public class RegistrationResult {
+    public static final String REGISTERED = "REGISTERED";
+    public static final String WAITLISTED = "WAITLISTED";
+
+    @Schema(description = "REGISTERED or WAITLISTED", example = "WAITLISTED")
+    private String status;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "1-based place in the waitlist; absent once registered", example = "3")
+    private Integer position;
+
+    public RegistrationResult() {}
+
+    public RegistrationResult(String status, Integer position) {
+        this.status = status;
+        this.position = position;
+    }
+
+    @JsonIgnore
+    public boolean isWaitlisted() { return WAITLISTED.equals(status); }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getPosition() { return position; }
+    public void setPosition(Integer position) { this.position = position; }
+}
@@ -0,0 +1,145 @@
+package app.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Takes activity logging off the request path: requests only offer to a bounded queue, and one
+// background worker drains it in batches to the client-activity topic, which activity-api consumes
+// with one bulk insert per poll. When the queue is full new activities are dropped and counted
+// rather than slowing requests down.
+@Component
+public class ActivityLogPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogPublisher.class);
+
+    public static final String TOPIC = "client-activity";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final BlockingQueue<Map<String, Object>> queue;
+    private final int batchSize;
+    private final long shutdownTimeoutMs;
+    private final boolean enabled;
+
+    private final Counter dropped;
+    private final Counter sent;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ActivityLogPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${client.activity-log.queue-capacity:10000}") int queueCapacity,
+                                @Value("${client.activity-log.batch-size:500}") int batchSize,
+                                @Value("${client.activity-log.shutdown-timeout-ms:5000}") long shutdownTimeoutMs,
+                                @Value("${client.activity-log.enabled:true}") boolean enabled) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.enabled = enabled;
+
+        Gauge.builder("client.activity.log.queue.size", queue, BlockingQueue::size)
+                .description("Activities waiting to be published")
+                .register(meterRegistry);
+        this.dropped = outcomeCounter(meterRegistry, "dropped");
+        this.sent = outcomeCounter(meterRegistry, "sent");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("client.activity.log.records")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("activity-log-publisher").daemon().start(this::drain);
+    }
+
+    // Never blocks; returns false when the activity was dropped
+    public boolean enqueue(Map<String, Object> activity) {
+        if (!enabled) {
+            return false;
+        }
+        if (queue.offer(activity)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void drain() {
+        List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+        // Keep going after stop() until whatever was queued has been handed to the producer
+        while (running || !queue.isEmpty()) {
+            try {
+                Map<String, Object> first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                publish(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // The producer batches these into as few requests as it can; outcomes are counted per record
+    private void publish(List<Map<String, Object>> batch) {
+        for (Map<String, Object> activity : batch) {
+            try {
+                kafkaTemplate.send(TOPIC, (String) activity.get("userId"), activity)
+                        .whenComplete((result, e) -> {
+                            if (e == null) {
+                                sent.increment();
+                            } else {
+                                failed.increment();
+                                logger.warn("Failed to publish activity: {}", e.getMessage());
+                            }
+                        });
+            } catch (Exception e) {
+                failed.increment();
+                logger.warn("Failed to publish activity: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(Math.max(1, shutdownTimeoutMs));
+            if (!queue.isEmpty()) {
+                logger.warn("Discarding {} unpublished activities on shutdown", queue.size());
+            }
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+}
@@ -1,92 +1,73 @@
 package app.services;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import org.springframework.http.HttpHeaders;
 import org.springframework.core.ParameterizedTypeReference;
+import app.models.ActivityDto;
 import app.utils.Fetch;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.time.OffsetDateTime;
 
 @Service
 public class ActivityService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ActivityService.class);
+
     private final WebClient webClient;
-    private final ObjectMapper objectMapper;
-    private static final String ACTIVITY_API_URL = "http://localhost:8083";
+    private final ActivityLogPublisher activityLogPublisher;
 
-    public ActivityService() {
-        this.webClient = WebClient.builder()
-                .baseUrl(ACTIVITY_API_URL)
+    public ActivityService(WebClient.Builder webClientBuilder,
+                           ActivityLogPublisher activityLogPublisher,
+                           @Value("${services.activity-api:http://localhost:8083}") String activityApiUrl) {
+        this.activityLogPublisher = activityLogPublisher;
+        this.webClient = webClientBuilder
+                .baseUrl(activityApiUrl)
                 .build();
-        this.objectMapper = new ObjectMapper();
     }
 
-    public void logActivity(String bearerToken, String title, String description, String path) {
-        try {
-            // Create the activity object in the exact format you want
-            Map<String, Object> activityData = Map.of(
-                "title", title,
-                "description", description,
-                "path", path,
-                "timestamp", OffsetDateTime.now()
-            );
+    // Queued for the background publisher so a request never waits on activity-api. The activity code
+    // (e.g. EVENT_VIEW) is the type activity-api filters and rolls up by, and stays the title for display
+    public void logActivity(String bearerToken, String type, String description, String path) {
+        Map<String, Object> activityData = new LinkedHashMap<>();
+        activityData.put("userId", bearerToken == null ? "anonymous" : Fetch.extractBearerToken(bearerToken));
+        activityData.put("type", type);
+        activityData.put("title", type);
+        activityData.put("description", description);
+        activityData.put("path", path);
+        activityData.put("timestamp", OffsetDateTime.now().toString());
 
-            // Post the activity data directly - activity-api will get user_id from bearer token
-            webClient.post()
-                    .uri("/api/v1/activities")
-                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
-                    .bodyValue(activityData)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-        } catch (WebClientResponseException e) {
-            System.err.println("Failed to log activity: " + Fetch.extractErrorMessage(e));
-        } catch (Exception e) {
-            System.err.println("Failed to log activity: " + e.getMessage());
+        if (!activityLogPublisher.enqueue(activityData)) {
+            logger.debug("Dropped activity {} for {}", type, path);
         }
     }
 
 
-    @SuppressWarnings("unchecked")
-    public List<Map<String, Object>> getUserActivities(String userId) throws Exception {
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // One page of the user's history, newest first; pass the last activity id back as `before`
+    // to fetch the next older page
+    public List<ActivityDto> getUserActivities(String userId, Long before, Integer limit) throws Exception {
         try {
-            List<Map<String, Object>> allActivities = webClient.get()
-                    .uri("/api/v1/activities")
+            String cleanUserId = Fetch.extractBearerToken(userId);
+            List<ActivityDto> activities = webClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/api/v1/activities")
+                            .queryParam("userId", cleanUserId)
+                            .queryParamIfPresent("before", Optional.ofNullable(before))
+                            .queryParamIfPresent("limit", Optional.ofNullable(limit))
+                            .build())
                     .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
+                    .bodyToMono(new ParameterizedTypeReference<List<ActivityDto>>() {})
                     .block();
 
-            if (allActivities == null) {
-                return new ArrayList<>();
-            }
-
-            // Filter activities for the specific user and parse the activity object
-            String cleanUserId = Fetch.extractBearerToken(userId);
-            List<Map<String, Object>> result = new ArrayList<>();
-            for (Map<String, Object> activity : allActivities) {
-                if (cleanUserId.equals(activity.get("userId"))) {
-                    try {
-                        String activityObjectJson = (String) activity.get("activityObject");
-                        Map<String, Object> parsedActivity = objectMapper.readValue(activityObjectJson, Map.class);
-                        result.add(parsedActivity);
-                    } catch (Exception e) {
-                        System.err.println("Failed to parse activity object: " + e.getMessage());
-                        Map<String, Object> defaultActivity = Map.of(
-                            "title", "Unknown",
-                            "description", "Failed to parse activity",
-                            "path", "/api/v1/unknown",
-                            "timestamp", java.time.OffsetDateTime.now()
-                        );
-                        result.add(defaultActivity);
-                    }
-                }
-            }
-            return result;
+            return activities == null ? new ArrayList<>() : activities;
         } catch (WebClientResponseException e) {
             throw new Exception(Fetch.extractErrorMessage(e));
         } catch (Exception e) {
@@ -2,28 +2,35 @@ package app.services;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import app.models.EventDto;
+import app.models.EventPage;
+import app.models.RegistrationResult;
 import app.models.UserDto;
 import app.utils.Fetch;
 import app.utils.ServiceException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class EventService {
 
     private final WebClient eventApiWebClient;
-    private final WebClient userApiWebClient;
+    private final UserTokenCache userTokenCache;
     private final ObjectMapper objectMapper;
 
-    public EventService() {
-        this.eventApiWebClient = WebClient.builder().baseUrl("http://localhost:8082").build();
-        this.userApiWebClient = WebClient.builder().baseUrl("http://localhost:8081").build();
+    public EventService(WebClient.Builder webClientBuilder,
+                        UserTokenCache userTokenCache,
+                        @Value("${services.event-api:http://localhost:8082}") String eventApiUrl) {
+        this.eventApiWebClient = webClientBuilder.baseUrl(eventApiUrl).build();
+        this.userTokenCache = userTokenCache;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
     }
@@ -49,6 +56,33 @@ public class EventService {
         }
     }
 
+    public EventPage getEventPage(String cursor, Integer limit, OffsetDateTime from, OffsetDateTime to,
+                                  String location, boolean hasFreeSeats) {
+        try {
+            EventPage page = eventApiWebClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/api/v1/events/page")
+                            .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                            .queryParamIfPresent("limit", Optional.ofNullable(limit))
+                            .queryParamIfPresent("from", Optional.ofNullable(from).map(time -> time.toInstant().toString()))
+                            .queryParamIfPresent("to", Optional.ofNullable(to).map(time -> time.toInstant().toString()))
+                            .queryParamIfPresent("location", Optional.ofNullable(location))
+                            .queryParam("hasFreeSeats", hasFreeSeats)
+                            .build())
+                    .retrieve()
+                    .bodyToMono(EventPage.class)
+                    .block();
+
+            if (page == null) {
+                throw new ServiceException("Failed to retrieve events", HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+
+            return page;
+        } catch (WebClientResponseException e) {
+            String errorMessage = Fetch.extractErrorMessage(e);
+            throw new ServiceException(errorMessage, HttpStatus.valueOf(e.getStatusCode().value()));
+        }
+    }
+
     public EventDto getEvent(String eventId) {
         try {
             Map<String, Object> eventMap = eventApiWebClient.get()
@@ -130,18 +164,25 @@ public class EventService {
         }
     }
 
-    public void registerForEvent(String token, String eventId) {
+    // Full events queue the user instead of failing; the result says which happened
+    public RegistrationResult registerForEvent(String token, String eventId) {
         String actualToken = Fetch.extractBearerToken(token);
 
         UserDto user = validateUser(actualToken);
 
         try {
-            eventApiWebClient.post()
+            RegistrationResult result = eventApiWebClient.post()
                     .uri("/api/v1/events/{id}/register", eventId)
                     .header("Authorization", user.getId())
                     .retrieve()
-                    .bodyToMono(Void.class)
+                    .bodyToMono(RegistrationResult.class)
                     .block();
+
+            if (result == null) {
+                throw new ServiceException("Failed to register for event", HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+
+            return result;
         } catch (WebClientResponseException e) {
             String errorMessage = Fetch.extractErrorMessage(e);
             throw new ServiceException(errorMessage, HttpStatus.valueOf(e.getStatusCode().value()));
@@ -219,22 +260,7 @@ public class EventService {
     }
 
     private UserDto validateUser(String token) {
-        try {
-            UserDto user = userApiWebClient.get()
-                    .uri("/user")
-                    .header("Authorization", token)
-                    .retrieve()
-                    .bodyToMono(UserDto.class)
-                    .block();
-
-            if (user == null) {
-                throw new ServiceException("User not found", HttpStatus.UNAUTHORIZED);
-            }
-
-            return user;
-        } catch (WebClientResponseException e) {
-            throw new ServiceException("Invalid user token", HttpStatus.UNAUTHORIZED);
-        }
+        return userTokenCache.getUser(token);
     }
 
 }
\ No newline at end of file
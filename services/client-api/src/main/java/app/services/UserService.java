@@ -2,6 +2,7 @@ package app.services;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -14,9 +15,13 @@ import java.util.Map;
 public class UserService {
 
     private final WebClient userApiWebClient;
+    private final UserTokenCache userTokenCache;
 
-    public UserService() {
-        this.userApiWebClient = WebClient.builder().baseUrl("http://localhost:8081").build();
+    public UserService(WebClient.Builder webClientBuilder,
+                       UserTokenCache userTokenCache,
+                       @Value("${services.user-api:http://localhost:8081}") String userApiUrl) {
+        this.userApiWebClient = webClientBuilder.baseUrl(userApiUrl).build();
+        this.userTokenCache = userTokenCache;
     }
 
     public String signup(UserDto user) {
@@ -89,6 +94,8 @@ public class UserService {
                     .retrieve()
                     .bodyToMono(Void.class)
                     .block();
+            // Don't serve the old user from this instance while the change event is in flight
+            userTokenCache.invalidate(actualToken);
         } catch (WebClientResponseException e) {
             String errorMessage = Fetch.extractErrorMessage(e);
             throw new ServiceException(errorMessage, HttpStatus.valueOf(e.getStatusCode().value()));
@@ -104,6 +111,8 @@ public class UserService {
                     .retrieve()
                     .bodyToMono(Void.class)
                     .block();
+            // Don't serve the old user from this instance while the change event is in flight
+            userTokenCache.invalidate(actualToken);
         } catch (WebClientResponseException e) {
             String errorMessage = Fetch.extractErrorMessage(e);
             throw new ServiceException(errorMessage, HttpStatus.valueOf(e.getStatusCode().value()));
@@ -0,0 +1,100 @@
+package app.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import app.models.UserDto;
+import app.utils.ServiceException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Bounded, expiring token -> user cache in front of user-api's GET /user. Concurrent misses for the
+// same token share one in-flight lookup, and failed lookups are never cached. Tokens are user ids,
+// so user-changed events from user-api invalidate entries by id.
+@Component
+public class UserTokenCache {
+    private static final Logger logger = LoggerFactory.getLogger(UserTokenCache.class);
+
+    public static final String CACHE_NAME = "user-tokens";
+
+    private final WebClient userApiWebClient;
+    private final AsyncCache<String, UserDto> cache;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public UserTokenCache(WebClient.Builder webClientBuilder,
+                          MeterRegistry meterRegistry,
+                          @Value("${services.user-api:http://localhost:8081}") String userApiUrl,
+                          @Value("${client.user-cache.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${client.user-cache.max-size:10000}") long maxSize) {
+        this.userApiWebClient = webClientBuilder.baseUrl(userApiUrl).build();
+        // Async so a miss never blocks inside the cache's own locks; callers wait on the shared future
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public UserDto getUser(String token) {
+        CompletableFuture<UserDto> lookup = cache.get(token, (key, executor) -> userApiWebClient.get()
+                .uri("/user")
+                .header("Authorization", key)
+                .retrieve()
+                .bodyToMono(UserDto.class)
+                .toFuture());
+        UserDto user;
+        try {
+            user = lookup.join();
+        } catch (CompletionException e) {
+            // Caffeine drops failed futures asynchronously; remove it now so a retry looks up again
+            cache.asMap().remove(token, lookup);
+            if (e.getCause() instanceof WebClientResponseException) {
+                throw new ServiceException("Invalid user token", HttpStatus.UNAUTHORIZED);
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        if (user == null) {
+            throw new ServiceException("User not found", HttpStatus.UNAUTHORIZED);
+        }
+        return user;
+    }
+
+    public void invalidate(String userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    public CacheStats getStats() {
+        return cache.synchronous().stats();
+    }
+
+    // Each instance needs every change, so the group id is unique per instance
+    @KafkaListener(topics = "user-changed",
+                   groupId = "client-api-user-cache-#{T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=latest",
+                   autoStartup = "${client.user-cache.invalidation-enabled:true}")
+    public void onUserChanged(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            String userId = event.get("userId").asText();
+            invalidate(userId);
+            logger.debug("Invalidated cached user {} after {}", userId, event.path("changeType").asText());
+        } catch (Exception e) {
+            logger.error("Error processing user change event: {}", message, e);
+        }
+    }
+}
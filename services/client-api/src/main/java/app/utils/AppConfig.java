@@ -1,8 +1,14 @@
 package app.utils;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import java.time.Duration;
 
 @Configuration
 public class AppConfig {
@@ -11,4 +17,22 @@ public class AppConfig {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
-}
\ No newline at end of file
+
+    // Requests run on virtual threads, so downstream concurrency is bounded by this pool rather
+    // than by request threads; Reactor's default (16 connections, short pending queue) would reject
+    // bursts long before the threads ran out.
+    @Bean
+    public ClientHttpConnector clientHttpConnector(
+            @Value("${client.http.max-connections:500}") int maxConnections,
+            @Value("${client.http.pending-acquire-max-count:5000}") int pendingAcquireMaxCount,
+            @Value("${client.http.response-timeout-ms:10000}") long responseTimeoutMs) {
+        ConnectionProvider provider = ConnectionProvider.builder("downstream-services")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(responseTimeoutMs))
+                .build();
+        HttpClient httpClient = HttpClient.create(provider)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,110 @@
+package app;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Before/after load test for request execution: GET /events against stubbed downstream services
+// that take DOWNSTREAM_LATENCY_MS per call, with the Tomcat pool capped at TOMCAT_THREADS.
+// Platform threads queue behind the pool; virtual threads keep every request in flight.
+// Boots the application twice, so it only runs with -Pbenchmark.
+@Tag("benchmark")
+class RequestThroughputLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(RequestThroughputLoadTest.class);
+
+    private static final int TOMCAT_THREADS = 8;
+    private static final int CONCURRENT_REQUESTS = 160;
+    private static final int DOWNSTREAM_LATENCY_MS = 400;
+
+    private HttpServer downstream;
+
+    @BeforeEach
+    void startDownstream() throws IOException {
+        downstream = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        downstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        downstream.createContext("/api/v1/events", exchange -> respond(exchange, 200, "[]"));
+        downstream.start();
+    }
+
+    @AfterEach
+    void stopDownstream() {
+        downstream.stop(0);
+    }
+
+    @Test
+    void virtualThreads_SustainMoreConcurrentRequestsThanThePlatformPool() throws Exception {
+        double platform = measureThroughput(false);
+        double virtual = measureThroughput(true);
+
+        logger.info("GET /events x{}, {}ms downstream, {} Tomcat threads: platform {} req/s, virtual {} req/s",
+            CONCURRENT_REQUESTS, DOWNSTREAM_LATENCY_MS, TOMCAT_THREADS, Math.round(platform), Math.round(virtual));
+        assertTrue(virtual > platform * 2, "virtual " + virtual + " req/s vs platform " + platform + " req/s");
+    }
+
+    private double measureThroughput(boolean virtualThreads) throws Exception {
+        String downstreamUrl = "http://localhost:" + downstream.getAddress().getPort();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .run(
+                    "--server.port=0",
+                    "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                    "--server.tomcat.accept-count=" + CONCURRENT_REQUESTS,
+                    "--spring.threads.virtual.enabled=" + virtualThreads,
+                    "--client.user-cache.invalidation-enabled=false",
+                    "--client.activity-log.enabled=false",
+                    "--services.event-api=" + downstreamUrl,
+                    "--services.user-api=" + downstreamUrl,
+                    "--services.activity-api=" + downstreamUrl)) {
+            URI events = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/events");
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+            // Warm up the connection pools and JIT before timing
+            send(client, events, TOMCAT_THREADS);
+
+            long start = System.nanoTime();
+            send(client, events, CONCURRENT_REQUESTS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return CONCURRENT_REQUESTS / seconds;
+        }
+    }
+
+    private static void send(HttpClient client, URI uri, int requests) {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString()));
+        }
+        responses.forEach(response -> assertEquals(200, response.join().statusCode()));
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, int status, String body) throws IOException {
+        try {
+            Thread.sleep(DOWNSTREAM_LATENCY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
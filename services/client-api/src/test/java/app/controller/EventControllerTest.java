@@ -2,6 +2,7 @@ package app.controller;
 
 import app.controllers.EventController;
 import app.models.EventDto;
+import app.models.RegistrationResult;
 import app.services.ActivityService;
 import app.services.EventService;
 import org.junit.jupiter.api.BeforeEach;
@@ -84,6 +85,8 @@ class EventControllerTest {
 
     @Test
     void registerForEvent_CallsService() throws Exception {
+        when(eventService.registerForEvent("2", "1")).thenReturn(new RegistrationResult(RegistrationResult.REGISTERED, null));
+
         mockMvc.perform(post("/events/1/register")
                 .header("Authorization", "2"))
                 .andExpect(status().isOk());
@@ -91,6 +94,16 @@ class EventControllerTest {
         verify(eventService).registerForEvent("2", "1");
     }
 
+    @Test
+    void registerForEvent_WhenFull_ReturnsAcceptedWithWaitlistPosition() throws Exception {
+        when(eventService.registerForEvent("2", "1")).thenReturn(new RegistrationResult(RegistrationResult.WAITLISTED, 3));
+
+        mockMvc.perform(post("/events/1/register")
+                .header("Authorization", "2"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.data.position").value(3));
+    }
+
     @Test
     void deregisterFromEvent_CallsService() throws Exception {
         mockMvc.perform(delete("/events/1/register")
@@ -0,0 +1,94 @@
+package app.service;
+
+import app.services.ActivityLogPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ActivityLogPublisherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+
+    private ActivityLogPublisher publisher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        publisher.stop();
+    }
+
+    @Test
+    void enqueue_WhenQueueIsFull_DropsAndCountsInsteadOfBlocking() {
+        publisher = new ActivityLogPublisher(kafkaTemplate, meterRegistry, 2, 10, 100, true);
+
+        assertTrue(publisher.enqueue(activity("1")));
+        assertTrue(publisher.enqueue(activity("2")));
+        assertFalse(publisher.enqueue(activity("3")));
+
+        assertEquals(2.0, meterRegistry.get("client.activity.log.queue.size").gauge().value());
+        assertEquals(1.0, counter("dropped"));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void worker_PublishesQueuedActivitiesKeyedByUser() throws InterruptedException {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        publisher = new ActivityLogPublisher(kafkaTemplate, meterRegistry, 100, 10, 5000, true);
+        for (int i = 0; i < 25; i++) {
+            publisher.enqueue(activity(String.valueOf(i % 3)));
+        }
+
+        publisher.start();
+        publisher.stop();
+
+        verify(kafkaTemplate, times(25)).send(eq(ActivityLogPublisher.TOPIC), anyString(), any());
+        verify(kafkaTemplate, times(8)).send(eq(ActivityLogPublisher.TOPIC), eq("2"), eq(activity("2")));
+        assertEquals(0, publisher.getQueueSize());
+        assertEquals(25.0, counter("sent"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void worker_CountsFailedSends() throws InterruptedException {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        publisher = new ActivityLogPublisher(kafkaTemplate, meterRegistry, 100, 10, 5000, true);
+        publisher.enqueue(activity("1"));
+
+        publisher.start();
+        publisher.stop();
+
+        assertEquals(1.0, counter("failed"));
+        assertEquals(0.0, counter("sent"));
+    }
+
+    @Test
+    void enqueue_WhenDisabled_IgnoresActivities() throws InterruptedException {
+        publisher = new ActivityLogPublisher(kafkaTemplate, meterRegistry, 100, 10, 100, false);
+
+        publisher.start();
+        assertFalse(publisher.enqueue(activity("1")));
+
+        assertEquals(0, publisher.getQueueSize());
+        assertEquals(0.0, counter("dropped"));
+    }
+
+    private double counter(String outcome) {
+        return meterRegistry.get("client.activity.log.records").tag("outcome", outcome).counter().count();
+    }
+
+    private static Map<String, Object> activity(String userId) {
+        return Map.of("userId", userId, "title", "EVENT_VIEW", "path", "/events/1");
+    }
+}
@@ -0,0 +1,116 @@
+package app.service;
+
+import app.models.UserDto;
+import app.services.UserTokenCache;
+import app.utils.ServiceException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserTokenCacheTest {
+
+    private HttpServer userApi;
+    private final AtomicInteger lookups = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private UserTokenCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        userApi = HttpServer.create(new InetSocketAddress("localhost", 0), 256);
+        userApi.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        userApi.createContext("/user", exchange -> {
+            lookups.incrementAndGet();
+            sleep(100);
+            String token = exchange.getRequestHeaders().getFirst("Authorization");
+            boolean known = "1".equals(token) || "2".equals(token);
+            byte[] body = (known ? "{\"id\":\"" + token + "\",\"name\":\"User " + token + "\"}" : "").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(known ? 200 : 404, known ? body.length : -1);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        userApi.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserTokenCache(WebClient.builder(), meterRegistry,
+                "http://localhost:" + userApi.getAddress().getPort(), 60, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userApi.stop(0);
+    }
+
+    @Test
+    void getUser_CoalescesConcurrentMissesIntoOneLookup() throws Exception {
+        List<Future<UserDto>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                results.add(callers.submit(() -> cache.getUser("1")));
+            }
+        }
+
+        for (Future<UserDto> result : results) {
+            assertEquals("1", result.get().getId());
+        }
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void getUser_ServesRepeatsFromCacheAndCountsHitsAndMisses() {
+        cache.getUser("1");
+        cache.getUser("1");
+        cache.getUser("2");
+
+        assertEquals(2, lookups.get());
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(2, cache.getStats().missCount());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", UserTokenCache.CACHE_NAME, "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getUser_WithUnknownToken_IsUnauthorizedAndNotCached() {
+        ServiceException first = assertThrows(ServiceException.class, () -> cache.getUser("99"));
+        assertThrows(ServiceException.class, () -> cache.getUser("99"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, first.getStatus());
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void onUserChanged_InvalidatesThatUser() {
+        cache.getUser("1");
+        cache.getUser("2");
+
+        cache.onUserChanged("{\"userId\":\"1\",\"changeType\":\"UPDATED\",\"timestamp\":\"2025-01-01T10:00:00Z\"}");
+        cache.getUser("1");
+        cache.getUser("2");
+
+        assertEquals(3, lookups.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
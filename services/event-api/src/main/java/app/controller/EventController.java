@@ -3,8 +3,11 @@ package app.controller;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
 import app.exception.ServiceException;
 import app.model.EventDto;
+import app.model.EventPage;
+import app.model.RegistrationResult;
 import app.service.EventService;
 import java.util.Map;
 import java.util.List;
@@ -33,13 +36,50 @@ public class EventController {
         }
     }
 
+    @GetMapping("/events/page")
+    public ResponseEntity<?> getEventPage(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+                                          @RequestParam(required = false) String location,
+                                          @RequestParam(defaultValue = "false") boolean hasFreeSeats) {
+        OffsetDateTime timestamp = OffsetDateTime.now();
+        String path = "/api/v1/events/page";
+
+        try {
+            EventPage page = eventService.getEventPage(cursor, limit, from, to, location, hasFreeSeats);
+            return ResponseEntity.status(HttpStatus.OK).body(page);
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus()).build();
+        }
+    }
+
+    @GetMapping("/events/search")
+    public ResponseEntity<?> searchEvents(@RequestParam String q,
+                                          @RequestParam(required = false) Integer limit) {
+        OffsetDateTime timestamp = OffsetDateTime.now();
+        String path = "/api/v1/events/search";
+
+        try {
+            List<EventDto> events = eventService.searchEvents(q, limit);
+            return ResponseEntity.status(HttpStatus.OK).body(events);
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus()).build();
+        }
+    }
+
+    // userIds come back in the order each user first registered for any event, not for this one
     @GetMapping("/events/{eventId}")
-    public ResponseEntity<?> getEvent(@PathVariable String eventId) {
+    public ResponseEntity<?> getEvent(@PathVariable String eventId,
+                                      @RequestParam(defaultValue = "0") int attendeePage,
+                                      @RequestParam(required = false) Integer attendeeLimit) {
         OffsetDateTime timestamp = OffsetDateTime.now();
         String path = "/api/v1/events/" + eventId;
 
         try {
-            EventDto event = eventService.getEvent(eventId);
+            EventDto event = attendeeLimit == null
+                ? eventService.getEvent(eventId)
+                : eventService.getEvent(eventId, attendeePage, attendeeLimit);
             return ResponseEntity.status(HttpStatus.OK).body(event);
         } catch (ServiceException e) {
             return ResponseEntity.status(e.getStatus()).build();
@@ -91,13 +131,28 @@ public class EventController {
         String path = "/api/v1/events/" + eventId + "/register";
 
         try {
-            eventService.registerForEvent(userId, eventId);
-            return ResponseEntity.status(HttpStatus.OK).build();
+            RegistrationResult result = eventService.registerForEvent(userId, eventId);
+            // 202 when the event was full and the user was queued instead
+            return ResponseEntity.status(result.isWaitlisted() ? HttpStatus.ACCEPTED : HttpStatus.OK).body(result);
         } catch (ServiceException e) {
             return ResponseEntity.status(e.getStatus()).build();
         }
     }
 
+    @PostMapping("/events/{eventId}/register/bulk")
+    public ResponseEntity<?> registerUsersForEvent(@RequestHeader(value = "Authorization", required = true) String userId, @PathVariable String eventId, @RequestBody List<String> userIds) {
+        OffsetDateTime timestamp = OffsetDateTime.now();
+        String path = "/api/v1/events/" + eventId + "/register/bulk";
+
+        try {
+            int registered = eventService.registerUsersForEvent(userId, eventId, userIds);
+            return ResponseEntity.status(HttpStatus.OK).body(Map.of("registered", registered));
+        } catch (ServiceException e) {
+            // All or nothing, so the caller needs to know which rule turned the group away
+            return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/events/{eventId}/register")
     public ResponseEntity<?> deregisterFromEvent(@RequestHeader(value = "Authorization", required = true) String userId, @PathVariable String eventId) {
         OffsetDateTime timestamp = OffsetDateTime.now();
@@ -111,6 +166,32 @@ public class EventController {
         }
     }
 
+    @GetMapping("/events/{eventId}/registration")
+    public ResponseEntity<?> getRegistrationStatus(@RequestHeader(value = "Authorization", required = true) String userId, @PathVariable String eventId) {
+        OffsetDateTime timestamp = OffsetDateTime.now();
+        String path = "/api/v1/events/" + eventId + "/registration";
+
+        try {
+            RegistrationResult result = eventService.getRegistrationStatus(userId, eventId);
+            return ResponseEntity.status(HttpStatus.OK).body(result);
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus()).build();
+        }
+    }
+
+    @DeleteMapping("/events/{eventId}/waitlist")
+    public ResponseEntity<?> leaveWaitlist(@RequestHeader(value = "Authorization", required = true) String userId, @PathVariable String eventId) {
+        OffsetDateTime timestamp = OffsetDateTime.now();
+        String path = "/api/v1/events/" + eventId + "/waitlist";
+
+        try {
+            eventService.leaveWaitlist(userId, eventId);
+            return ResponseEntity.status(HttpStatus.OK).build();
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus()).build();
+        }
+    }
+
     @GetMapping("/events/my-events")
     public ResponseEntity<?> getUserEvents(@RequestHeader(value = "Authorization", required = true) String userId) {
         OffsetDateTime timestamp = OffsetDateTime.now();
@@ -6,6 +6,7 @@ import app.stream.EventAnalyticsProcessor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -26,15 +27,19 @@ public class StreamAnalyticsController {
     }
 
     @GetMapping("/trending-events")
-    public ResponseEntity<Map<String, Object>> getTrendingEvents() {
-        Map<String, Integer> trendingEvents = trendingProcessor.getTrendingEvents();
+    public ResponseEntity<Map<String, Object>> getTrendingEvents(@RequestParam(defaultValue = "10") int k) {
+        if (k < 1 || k > TrendingEventsProcessor.MAX_K) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Map<String, Object>> trendingEvents = trendingProcessor.getTopTrendingEvents(k);
+        int windowMinutes = trendingProcessor.getWindowMinutes();
 
         Map<String, Object> response = new HashMap<>();
         response.put("trendingEvents", trendingEvents);
-        response.put("windowMinutes", 5);
-        response.put("threshold", 3);
+        response.put("windowMinutes", windowMinutes);
+        response.put("k", k);
         response.put("timestamp", System.currentTimeMillis());
-        response.put("description", "Events with 3+ registrations in last 5 minutes");
+        response.put("description", "Top " + k + " events by registrations in last " + windowMinutes + " minutes");
 
         return ResponseEntity.ok(response);
     }
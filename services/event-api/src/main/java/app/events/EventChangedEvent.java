@@ -0,0 +1,75 @@
+package app.events;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+public class EventChangedEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    public static final String DEREGISTERED = "DEREGISTERED";
+
+    private String eventId;
+    private String changeType;
+    private String userId; // only set for DEREGISTERED
+    private OffsetDateTime timestamp;
+
+    // Default constructor for JSON deserialization
+    public EventChangedEvent() {
+    }
+
+    public EventChangedEvent(String eventId, String changeType, OffsetDateTime timestamp) {
+        this.eventId = eventId;
+        this.changeType = changeType;
+        this.timestamp = timestamp;
+    }
+
+    public EventChangedEvent(String eventId, String changeType, String userId, OffsetDateTime timestamp) {
+        this(eventId, changeType, timestamp);
+        this.userId = userId;
+    }
+
+    // Getters and Setters
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public OffsetDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(OffsetDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "EventChangedEvent{" +
+                "eventId='" + eventId + '\'' +
+                ", changeType='" + changeType + '\'' +
+                ", userId='" + userId + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package app.events;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+public class WaitlistPromotedEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String userId;
+    private String eventId;
+    private String eventTitle;
+    private OffsetDateTime timestamp;
+
+    // Default constructor for JSON deserialization
+    public WaitlistPromotedEvent() {
+    }
+
+    public WaitlistPromotedEvent(String userId, String eventId, String eventTitle, OffsetDateTime timestamp) {
+        this.userId = userId;
+        this.eventId = eventId;
+        this.eventTitle = eventTitle;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventTitle() {
+        return eventTitle;
+    }
+
+    public void setEventTitle(String eventTitle) {
+        this.eventTitle = eventTitle;
+    }
+
+    public OffsetDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(OffsetDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "WaitlistPromotedEvent{" +
+                "userId='" + userId + '\'' +
+                ", eventId='" + eventId + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
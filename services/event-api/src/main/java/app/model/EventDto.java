@@ -6,7 +6,10 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+    @Index(name = "idx_events_start_time_id", columnList = "startTime, id"),
+    @Index(name = "idx_events_location_start_time", columnList = "location, startTime, id")
+})
 public class EventDto {
     @Id
     private String id;
@@ -31,7 +34,8 @@ public class EventDto {
     @Column(nullable = false)
     private int maxParticipants;
 
-    @Column(nullable = false)
+    // Only moved by conditional UPDATEs in EventRepository so entity saves never clobber it
+    @Column(nullable = false, updatable = false)
     private int currentParticipants;
 
     @Transient
@@ -0,0 +1,24 @@
+package app.model;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class EventPage {
+    private List<EventDto> events;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    public EventPage() {}
+
+    public EventPage(List<EventDto> events, String nextCursor) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<EventDto> getEvents() { return events; }
+    public void setEvents(List<EventDto> events) { this.events = events; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,37 @@
+package app.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class RegistrationResult {
+    public static final String REGISTERED = "REGISTERED";
+    public static final String WAITLISTED = "WAITLISTED";
+
+    private String status;
+
+    // 1-based place in the waitlist, only while waitlisted
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer position;
+
+    public RegistrationResult() {}
+
+    public RegistrationResult(String status, Integer position) {
+        this.status = status;
+        this.position = position;
+    }
+
+    public static RegistrationResult registered() {
+        return new RegistrationResult(REGISTERED, null);
+    }
+
+    public static RegistrationResult waitlisted(int position) {
+        return new RegistrationResult(WAITLISTED, position);
+    }
+
+    public boolean isWaitlisted() { return WAITLISTED.equals(status); }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getPosition() { return position; }
+    public void setPosition(Integer position) { this.position = position; }
+}
@@ -0,0 +1,47 @@
+package app.model;
+
+import java.time.OffsetDateTime;
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "event_waitlist",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"}),
+       indexes = @Index(name = "idx_event_waitlist_event_id", columnList = "event_id, id"))
+public class WaitlistEntry {
+
+    // Ids follow join order, which is the queue order. One id per call rather than a block per node, or a
+    // node still working through its block would queue later joiners ahead of other nodes' earlier ones.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_waitlist_seq")
+    @SequenceGenerator(name = "event_waitlist_seq", sequenceName = "event_waitlist_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private OffsetDateTime joinedAt;
+
+    public WaitlistEntry() {}
+
+    public WaitlistEntry(String eventId, String userId, OffsetDateTime joinedAt) {
+        this.eventId = eventId;
+        this.userId = userId;
+        this.joinedAt = joinedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public OffsetDateTime getJoinedAt() { return joinedAt; }
+    public void setJoinedAt(OffsetDateTime joinedAt) { this.joinedAt = joinedAt; }
+}
@@ -2,15 +2,18 @@ package app.repository;
 
 import app.model.EventRegistration;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EventRegistrationRepository extends JpaRepository<EventRegistration, Long> {
-    List<EventRegistration> findByUserId(String userId);
-    List<EventRegistration> findByEventId(String eventId);
     Optional<EventRegistration> findByUserIdAndEventId(String userId, String eventId);
     void deleteByEventId(String eventId);
-    long countByEventId(String eventId);
+
+    @Modifying
+    @Query("DELETE FROM EventRegistration r WHERE r.userId = :userId AND r.eventId = :eventId")
+    int deleteByUserIdAndEventId(@Param("userId") String userId, @Param("eventId") String eventId);
 }
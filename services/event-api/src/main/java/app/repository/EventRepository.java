@@ -1,11 +1,50 @@
 package app.repository;
 
 import app.model.EventDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @Repository
 public interface EventRepository extends JpaRepository<EventDto, String> {
     List<EventDto> findByCreatedBy(String createdBy);
+
+    // Keyset page ordered by (startTime, id); null parameters disable their filter
+    @Query("SELECT e FROM EventDto e WHERE " +
+           "(:afterStart IS NULL OR e.startTime > :afterStart OR (e.startTime = :afterStart AND e.id > :afterId)) " +
+           "AND (:from IS NULL OR e.startTime >= :from) " +
+           "AND (:to IS NULL OR e.startTime < :to) " +
+           "AND (:location IS NULL OR e.location = :location) " +
+           "AND (:hasFreeSeats = false OR e.currentParticipants < e.maxParticipants) " +
+           "ORDER BY e.startTime, e.id")
+    List<EventDto> findPage(@Param("afterStart") OffsetDateTime afterStart,
+                            @Param("afterId") String afterId,
+                            @Param("from") OffsetDateTime from,
+                            @Param("to") OffsetDateTime to,
+                            @Param("location") String location,
+                            @Param("hasFreeSeats") boolean hasFreeSeats,
+                            Pageable pageable);
+
+    @Query("SELECT e.currentParticipants FROM EventDto e WHERE e.id = :eventId")
+    Integer findCurrentParticipants(@Param("eventId") String eventId);
+
+    @Modifying
+    @Query("UPDATE EventDto e SET e.currentParticipants = e.currentParticipants + 1 " +
+           "WHERE e.id = :eventId AND e.currentParticipants < e.maxParticipants")
+    int incrementParticipantsIfAvailable(@Param("eventId") String eventId);
+
+    @Modifying
+    @Query("UPDATE EventDto e SET e.currentParticipants = e.currentParticipants + :count " +
+           "WHERE e.id = :eventId AND e.currentParticipants + :count <= e.maxParticipants")
+    int incrementParticipantsIfAvailable(@Param("eventId") String eventId, @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE EventDto e SET e.currentParticipants = e.currentParticipants - 1 " +
+           "WHERE e.id = :eventId AND e.currentParticipants > 0")
+    int decrementParticipants(@Param("eventId") String eventId);
 }
@@ -0,0 +1,12 @@
+package app.repository;
+
+import app.model.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+    List<OutboxMessage> findByOrderByIdAsc(Pageable pageable);
+}
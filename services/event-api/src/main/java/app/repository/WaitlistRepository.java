@@ -0,0 +1,36 @@
+package app.repository;
+
+import app.model.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    boolean existsByEventId(String eventId);
+
+    // Locked until the promoting transaction ends, so a second node waits for it instead of taking the same user
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<WaitlistEntry> findFirstByEventIdOrderByIdAsc(String eventId);
+
+    long countByEventIdAndIdLessThanEqual(String eventId, Long id);
+
+    // 1-based place in the queue, or 0 when the user is not waiting
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.eventId = :eventId AND w.id <= " +
+           "(SELECT m.id FROM WaitlistEntry m WHERE m.eventId = :eventId AND m.userId = :userId)")
+    long findPosition(@Param("eventId") String eventId, @Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.eventId = :eventId AND w.userId = :userId")
+    int deleteByEventIdAndUserId(@Param("eventId") String eventId, @Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") String eventId);
+}
@@ -0,0 +1,155 @@
+package app.service;
+
+import app.model.EventDto;
+import app.publisher.EventEventPublisher;
+import app.utils.Transactions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+// Bounded, expiring read-through cache in front of EventRepository for single events and the full list.
+//
+// Every entry carries the version it was loaded at and every invalidation records the version it
+// happened at, so a load that raced an invalidation is never served: it is either not stored or fails
+// the version check on read. Local writes invalidate now and again once their transaction completes;
+// other nodes invalidate from event-api's own topics.
+@Component
+public class EventCache {
+    private static final Logger logger = LoggerFactory.getLogger(EventCache.class);
+
+    public static final String EVENTS_CACHE = "events";
+    public static final String EVENT_LISTS_CACHE = "event-lists";
+    private static final String ALL_EVENTS = "*"; // never a UUID event id
+
+    private final Cache<String, Versioned<EventDto>> events;
+    private final Cache<String, Versioned<List<EventDto>>> eventLists;
+    private final Cache<String, Long> invalidatedAt;
+    private final AtomicLong clock = new AtomicLong();
+    private final Timer eventLoads;
+    private final Timer eventListLoads;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public EventCache(MeterRegistry meterRegistry,
+                      @Value("${event.cache.ttl-seconds:30}") long ttlSeconds,
+                      @Value("${event.cache.max-size:10000}") long maxSize) {
+        this.events = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        this.eventLists = Caffeine.newBuilder()
+            .maximumSize(1)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        // Only needs to outlive any entry loaded before the invalidation
+        this.invalidatedAt = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds * 2))
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, events, EVENTS_CACHE);
+        CaffeineCacheMetrics.monitor(meterRegistry, eventLists, EVENT_LISTS_CACHE);
+        this.eventLoads = loadTimer(meterRegistry, EVENTS_CACHE);
+        this.eventListLoads = loadTimer(meterRegistry, EVENT_LISTS_CACHE);
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String cache) {
+        return Timer.builder("event.cache.load")
+            .description("Time spent loading cache misses from the database")
+            .tag("cache", cache)
+            .register(meterRegistry);
+    }
+
+    // Callers get their own copy, so per-request fields like userIds never leak into the cache
+    public Optional<EventDto> getEvent(String eventId, Supplier<Optional<EventDto>> loader) {
+        return Optional.ofNullable(read(events, eventId, () -> loader.get().orElse(null), EventCache::copy, eventLoads));
+    }
+
+    public List<EventDto> getAllEvents(Supplier<List<EventDto>> loader) {
+        return read(eventLists, ALL_EVENTS, loader, list -> list.stream().map(EventCache::copy).toList(), eventListLoads);
+    }
+
+    // The event and the full list, which contains it. A reader may reload the old row before the writing
+    // transaction commits, so both are dropped again once it completes.
+    public void invalidate(String eventId) {
+        invalidateNow(eventId);
+        Transactions.afterCompletion(() -> invalidateNow(eventId));
+    }
+
+    public void invalidateAllEvents() {
+        invalidateListNow();
+        Transactions.afterCompletion(this::invalidateListNow);
+    }
+
+    // Each instance needs every change, so the group id is unique per instance
+    @KafkaListener(topics = {EventEventPublisher.EVENT_CREATED_TOPIC, EventEventPublisher.USER_REGISTERED_TOPIC,
+                             EventEventPublisher.EVENT_CHANGED_TOPIC},
+                   groupId = "event-api-cache-#{T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=latest",
+                   autoStartup = "${event.cache.invalidation-enabled:true}")
+    public void onEventChanged(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            String eventId = event.get("eventId").asText();
+            invalidateNow(eventId);
+            logger.debug("Invalidated cached event {}", eventId);
+        } catch (Exception e) {
+            logger.error("Error processing event change for cache invalidation: {}", message, e);
+        }
+    }
+
+    private <T> T read(Cache<String, Versioned<T>> cache, String key, Supplier<T> loader, UnaryOperator<T> copy,
+                       Timer loadTimer) {
+        Versioned<T> cached = cache.getIfPresent(key);
+        if (cached != null && cached.version() > lastInvalidation(key)) {
+            return copy.apply(cached.value());
+        }
+
+        long version = clock.incrementAndGet();
+        T loaded = loadTimer.record(loader);
+        if (loaded != null && version > lastInvalidation(key)) {
+            cache.put(key, new Versioned<>(copy.apply(loaded), version));
+        }
+        return loaded;
+    }
+
+    private void invalidateNow(String eventId) {
+        invalidatedAt.put(eventId, clock.incrementAndGet());
+        events.invalidate(eventId);
+        invalidateListNow();
+    }
+
+    private void invalidateListNow() {
+        invalidatedAt.put(ALL_EVENTS, clock.incrementAndGet());
+        eventLists.invalidate(ALL_EVENTS);
+    }
+
+    private long lastInvalidation(String key) {
+        Long version = invalidatedAt.getIfPresent(key);
+        return version == null ? 0 : version;
+    }
+
+    private static EventDto copy(EventDto event) {
+        return new EventDto(event.getId(), event.getTitle(), event.getDescription(), event.getLocation(),
+            event.getStartTime(), event.getEndTime(), event.getCreatedBy(),
+            event.getMaxParticipants(), event.getCurrentParticipants());
+    }
+
+    private record Versioned<T>(T value, long version) {}
+}
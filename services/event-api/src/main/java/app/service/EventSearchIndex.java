@@ -0,0 +1,269 @@
+package app.service;
+
+import app.events.EventChangedEvent;
+import app.model.EventDto;
+import app.publisher.EventEventPublisher;
+import app.repository.EventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over event title, description and location, ranked with BM25.
+//
+// Fields are folded into one weighted term frequency (a title hit counts TITLE_WEIGHT times), and the last
+// query term also matches as a prefix so search-as-you-type works. Each instance builds its own index from
+// the table at startup and then follows event-api's topics, so it lags a write by the outbox relay interval.
+@Component
+public class EventSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int LOCATION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "at", "by", "for", "in", "is", "of", "on", "or", "the", "to", "with");
+
+    private final EventRepository eventRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // term -> (eventId -> weighted term frequency), sorted so a prefix is a contiguous range
+    private final TreeMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    // eventId -> its weighted term frequencies, kept to unindex it again
+    private final Map<String, Document> documents = new HashMap<>();
+    private long totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ids changed from Kafka while a rebuild is running; the rebuild's older copy must not overwrite them
+    private volatile Set<String> changedDuringRebuild;
+
+    public EventSearchIndex(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        changedDuringRebuild = ConcurrentHashMap.newKeySet();
+        try {
+            List<EventDto> events = eventRepository.findAll();
+            for (EventDto event : events) {
+                if (!changedDuringRebuild.contains(event.getId())) {
+                    index(event.getId(), event.getTitle(), event.getDescription(), event.getLocation());
+                }
+            }
+            logger.info("Search index built from {} events", events.size());
+        } finally {
+            changedDuringRebuild = null;
+        }
+    }
+
+    // Each instance keeps its own index, so the group id is unique per instance
+    @KafkaListener(topics = {EventEventPublisher.EVENT_CREATED_TOPIC, EventEventPublisher.EVENT_CHANGED_TOPIC},
+                   groupId = "event-api-search-#{T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=latest",
+                   autoStartup = "${event.search.updates-enabled:true}")
+    public void onEventChanged(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            String eventId = event.get("eventId").asText();
+            markChanged(eventId);
+
+            if (!event.has("changeType")) {
+                index(eventId, text(event, "title"), text(event, "description"), text(event, "location"));
+            } else if (EventChangedEvent.DELETED.equals(event.get("changeType").asText())) {
+                remove(eventId);
+            } else if (EventChangedEvent.UPDATED.equals(event.get("changeType").asText())) {
+                // The change message only carries the id, so read back what was committed
+                eventRepository.findById(eventId).ifPresentOrElse(
+                    updated -> index(eventId, updated.getTitle(), updated.getDescription(), updated.getLocation()),
+                    () -> remove(eventId));
+            }
+        } catch (Exception e) {
+            logger.error("Error processing event change for search index: {}", message, e);
+        }
+    }
+
+    public void index(String eventId, String title, String description, String location) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        addTerms(terms, location, LOCATION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            unindex(eventId);
+            Document document = new Document(terms, terms.values().stream().mapToInt(Integer::intValue).sum());
+            documents.put(eventId, document);
+            terms.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(eventId, frequency));
+            totalLength += document.length();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String eventId) {
+        lock.writeLock().lock();
+        try {
+            unindex(eventId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Event ids best match first; documents matching any query term are candidates
+    public List<String> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            Map<String, Double> scores = new HashMap<>();
+            for (int i = 0; i < queryTerms.size(); i++) {
+                String queryTerm = queryTerms.get(i);
+                boolean last = i == queryTerms.size() - 1;
+                for (Map.Entry<String, Map<String, Integer>> term : matchingTerms(queryTerm, last)) {
+                    Map<String, Integer> matches = term.getValue();
+                    double idf = Math.log(1 + (documentCount - matches.size() + 0.5) / (matches.size() + 0.5));
+                    matches.forEach((eventId, frequency) -> {
+                        double lengthNorm = 1 - B + B * documents.get(eventId).length() / averageLength;
+                        double score = idf * frequency * (K1 + 1) / (frequency + K1 * lengthNorm);
+                        scores.merge(eventId, score, Double::sum);
+                    });
+                }
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Map.Entry<String, Map<String, Integer>>> matchingTerms(String queryTerm, boolean prefix) {
+        List<Map.Entry<String, Map<String, Integer>>> matches = new ArrayList<>();
+        if (!prefix || queryTerm.length() < MIN_PREFIX_LENGTH) {
+            Map<String, Integer> exact = postings.get(queryTerm);
+            if (exact != null) {
+                matches.add(Map.entry(queryTerm, exact));
+            }
+            return matches;
+        }
+        // The exact term sorts first in its own prefix range
+        SortedMap<String, Map<String, Integer>> range = postings.subMap(queryTerm, queryTerm + Character.MAX_VALUE);
+        for (Map.Entry<String, Map<String, Integer>> term : range.entrySet()) {
+            if (matches.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            matches.add(term);
+        }
+        return matches;
+    }
+
+    private static List<String> top(Map<String, Double> scores, int limit) {
+        Comparator<Map.Entry<String, Double>> byRank = Map.Entry.<String, Double>comparingByValue()
+            .reversed()
+            .thenComparing(Map.Entry.comparingByKey());
+
+        // Min-heap of the best `limit` so far, worst at the head
+        PriorityQueue<Map.Entry<String, Double>> best = new PriorityQueue<>(limit + 1, byRank.reversed());
+        for (Map.Entry<String, Double> score : scores.entrySet()) {
+            best.add(score);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        return best.stream().sorted(byRank).map(Map.Entry::getKey).toList();
+    }
+
+    private void unindex(String eventId) {
+        Document document = documents.remove(eventId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms().keySet()) {
+            Map<String, Integer> matches = postings.get(term);
+            matches.remove(eventId);
+            if (matches.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length();
+    }
+
+    private void markChanged(String eventId) {
+        Set<String> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.add(eventId);
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Integer::sum);
+        }
+    }
+
+    // Lower-cased, accent-folded words without stop words, shared by indexing and queries
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        for (String token : NON_WORD.split(folded)) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String text(JsonNode event, String field) {
+        JsonNode value = event.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private record Document(Map<String, Integer> terms, int length) {}
+}
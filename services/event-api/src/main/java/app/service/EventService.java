@@ -5,52 +5,147 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import app.exception.ServiceException;
 import app.model.EventDto;
+import app.model.EventPage;
 import app.model.EventRegistration;
+import app.model.RegistrationResult;
 import app.repository.EventRepository;
 import app.repository.EventRegistrationRepository;
 import app.publisher.EventEventPublisher;
 import app.events.EventCreatedEvent;
 import app.events.UserRegisteredForEventEvent;
 import app.events.EventCapacityReachedEvent;
+import app.events.EventChangedEvent;
+import app.events.WaitlistPromotedEvent;
+import app.utils.Transactions;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.ArrayList;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class EventService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BULK_REGISTRATIONS = 500;
+
     private final EventRepository eventRepository;
     private final EventRegistrationRepository registrationRepository;
     private final EventEventPublisher eventPublisher;
+    private final SeatReservationEngine reservationEngine;
+    private final EventCache eventCache;
+    private final EventSearchIndex searchIndex;
+    private final RegistrationIndex registrationIndex;
+    private final EventWaitlist waitlist;
 
     public EventService(EventRepository eventRepository,
                        EventRegistrationRepository registrationRepository,
-                       EventEventPublisher eventPublisher) {
+                       EventEventPublisher eventPublisher,
+                       SeatReservationEngine reservationEngine,
+                       EventCache eventCache,
+                       EventSearchIndex searchIndex,
+                       RegistrationIndex registrationIndex,
+                       EventWaitlist waitlist) {
         this.eventRepository = eventRepository;
         this.registrationRepository = registrationRepository;
         this.eventPublisher = eventPublisher;
+        this.reservationEngine = reservationEngine;
+        this.eventCache = eventCache;
+        this.searchIndex = searchIndex;
+        this.registrationIndex = registrationIndex;
+        this.waitlist = waitlist;
     }
 
     public List<EventDto> getAllEvents() {
-        return eventRepository.findAll();
+        return eventCache.getAllEvents(eventRepository::findAll);
+    }
+
+    public EventPage getEventPage(String cursor, Integer limit, OffsetDateTime from, OffsetDateTime to,
+                                  String location, boolean hasFreeSeats) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ServiceException("limit must be between 1 and " + MAX_PAGE_SIZE, HttpStatus.BAD_REQUEST);
+        }
+
+        OffsetDateTime afterStart = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterStart = OffsetDateTime.parse(position[0]);
+            afterId = position[1];
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<EventDto> events = eventRepository.findPage(afterStart, afterId, from, to, location, hasFreeSeats,
+            PageRequest.of(0, pageSize + 1));
+
+        String nextCursor = null;
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+            nextCursor = encodeCursor(events.get(pageSize - 1));
+        }
+        return new EventPage(events, nextCursor);
+    }
+
+    // Ranked by the in-memory index; only the hits are read from the database
+    public List<EventDto> searchEvents(String query, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ServiceException("limit must be between 1 and " + MAX_PAGE_SIZE, HttpStatus.BAD_REQUEST);
+        }
+        if (query == null || query.isBlank()) {
+            throw new ServiceException("q is required", HttpStatus.BAD_REQUEST);
+        }
+
+        List<String> eventIds = searchIndex.search(query, pageSize);
+        if (eventIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, EventDto> events = eventRepository.findAllById(eventIds).stream()
+            .collect(Collectors.toMap(EventDto::getId, Function.identity()));
+        return eventIds.stream()
+            .map(events::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
     }
 
     public EventDto getEvent(String eventId) {
-        EventDto event = eventRepository.findById(eventId)
+        return getEvent(eventId, Pageable.unpaged());
+    }
+
+    public EventDto getEvent(String eventId, int attendeePage, int attendeeLimit) {
+        if (attendeePage < 0 || attendeeLimit < 1 || attendeeLimit > MAX_PAGE_SIZE) {
+            throw new ServiceException("Invalid attendee page", HttpStatus.BAD_REQUEST);
+        }
+        return getEvent(eventId, PageRequest.of(attendeePage, attendeeLimit));
+    }
+
+    private EventDto getEvent(String eventId, Pageable attendees) {
+        EventDto event = findEvent(eventId)
             .orElseThrow(() -> new ServiceException("Event not found", HttpStatus.NOT_FOUND));
 
-        EventDto eventWithUsers = copyEvent(event);
-        List<String> registeredUsers = registrationRepository.findByEventId(eventId)
-            .stream()
-            .map(EventRegistration::getUserId)
-            .collect(Collectors.toList());
+        event.setUserIds(registrationIndex.getAttendees(eventId, attendees));
+        return event;
+    }
 
-        eventWithUsers.setUserIds(registeredUsers);
-        return eventWithUsers;
+    // Read-only lookups go through the cache; anything that saves the entity loads it from the repository
+    private Optional<EventDto> findEvent(String eventId) {
+        return eventCache.getEvent(eventId, () -> eventRepository.findById(eventId));
     }
 
+    @Transactional
     public String createEvent(String userId, EventDto event) {
         String eventId = UUID.randomUUID().toString();
         event.setId(eventId);
@@ -72,10 +167,12 @@ public class EventService {
             OffsetDateTime.now()
         );
         eventPublisher.publishEventCreated(createdEvent);
+        eventCache.invalidateAllEvents();
 
         return eventId;
     }
 
+    @Transactional
     public void updateEvent(String userId, String eventId, EventDto updatedEvent) {
         EventDto existingEvent = eventRepository.findById(eventId)
             .orElseThrow(() -> new ServiceException("Event not found", HttpStatus.NOT_FOUND));
@@ -104,6 +201,10 @@ public class EventService {
         }
 
         eventRepository.save(existingEvent);
+        eventPublisher.publishEventChanged(new EventChangedEvent(eventId, EventChangedEvent.UPDATED, OffsetDateTime.now()));
+        // A raised capacity goes to the waitlist first
+        promoteFromWaitlist(existingEvent, 0);
+        eventCache.invalidate(eventId);
     }
 
     @Transactional
@@ -117,40 +218,67 @@ public class EventService {
 
         registrationRepository.deleteByEventId(eventId);
         eventRepository.deleteById(eventId);
+        Transactions.afterCommit(() -> reservationEngine.evict(eventId));
+        registrationIndex.removeEvent(eventId);
+        waitlist.removeEvent(eventId);
+        eventPublisher.publishEventChanged(new EventChangedEvent(eventId, EventChangedEvent.DELETED, OffsetDateTime.now()));
+        eventCache.invalidate(eventId);
     }
 
     @Transactional
-    public void registerForEvent(String userId, String eventId) {
-        EventDto event = eventRepository.findById(eventId)
+    public RegistrationResult registerForEvent(String userId, String eventId) {
+        EventDto event = findEvent(eventId)
             .orElseThrow(() -> new ServiceException("Event not found", HttpStatus.NOT_FOUND));
 
-        if (registrationRepository.findByUserIdAndEventId(userId, eventId).isPresent()) {
+        // A hit is confirmed against the table in case another node's deregistration has not arrived yet
+        if (registrationIndex.isRegistered(userId, eventId) && registrationIndex.refresh(userId, eventId)) {
             throw new ServiceException("Already registered for this event", HttpStatus.CONFLICT);
         }
 
-        if (event.getCurrentParticipants() >= event.getMaxParticipants()) {
-            throw new ServiceException("Event is at maximum capacity", HttpStatus.CONFLICT);
+        // Once anyone is waiting, new sign-ups queue behind them rather than racing them for freed seats
+        if (waitlist.hasWaiting(eventId)) {
+            return RegistrationResult.waitlisted(waitlist.join(userId, eventId));
         }
 
-        EventRegistration registration = new EventRegistration(userId, eventId);
-        registrationRepository.save(registration);
+        // Admit or queue in memory first so a sold-out event never reaches the events table
+        int currentParticipants = reserveSeats(event, 1);
+        if (currentParticipants == SeatReservationEngine.REJECTED) {
+            return RegistrationResult.waitlisted(waitlist.join(userId, eventId));
+        }
+
+        // Conditional update guards against oversell from other nodes; rollback releases the seat. A full row
+        // means another node took the seat, so the user queues like any other sign-up for a full event.
+        if (eventRepository.incrementParticipantsIfAvailable(eventId) == 0) {
+            resyncSeats(eventId);
+            return RegistrationResult.waitlisted(waitlist.join(userId, eventId));
+        }
 
-        event.setCurrentParticipants(event.getCurrentParticipants() + 1);
-        eventRepository.save(event);
+        // After the seat, which is seeded from the index; the rollback hands the seat back
+        if (!registrationIndex.register(userId, eventId)) {
+            throw new ServiceException("Already registered for this event", HttpStatus.CONFLICT);
+        }
+
+        // Flushed here so a registration made on another node fails as a conflict rather than at commit
+        try {
+            registrationRepository.saveAndFlush(new EventRegistration(userId, eventId));
+        } catch (DataIntegrityViolationException e) {
+            throw new ServiceException("Already registered for this event", HttpStatus.CONFLICT);
+        }
 
         // Publish domain event for user registration
         UserRegisteredForEventEvent registeredEvent = new UserRegisteredForEventEvent(
             userId,
             eventId,
             event.getTitle(),
-            event.getCurrentParticipants(),
+            currentParticipants,
             event.getMaxParticipants(),
             OffsetDateTime.now()
         );
         eventPublisher.publishUserRegisteredForEvent(registeredEvent);
+        eventCache.invalidate(eventId);
 
         // Check if event reached capacity and publish event if so
-        if (event.getCurrentParticipants() >= event.getMaxParticipants()) {
+        if (currentParticipants >= event.getMaxParticipants()) {
             EventCapacityReachedEvent capacityEvent = new EventCapacityReachedEvent(
                 eventId,
                 event.getTitle(),
@@ -159,20 +287,210 @@ public class EventService {
             );
             eventPublisher.publishEventCapacityReached(capacityEvent);
         }
+        return RegistrationResult.registered();
+    }
+
+    // Group sign-up: every user gets a seat or none do, with one capacity update, one insert batch and one publish.
+    // Only the event's creator or a member of the group can book for the group.
+    @Transactional
+    public int registerUsersForEvent(String callerId, String eventId, List<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new ServiceException("userIds must not be empty", HttpStatus.BAD_REQUEST);
+        }
+        if (userIds.size() > MAX_BULK_REGISTRATIONS) {
+            throw new ServiceException("At most " + MAX_BULK_REGISTRATIONS + " users per request", HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        if (userIds.stream().anyMatch(userId -> userId == null || userId.isBlank())
+                || userIds.stream().distinct().count() != userIds.size()) {
+            throw new ServiceException("userIds must be distinct and non-blank", HttpStatus.BAD_REQUEST);
+        }
+
+        EventDto event = findEvent(eventId)
+            .orElseThrow(() -> new ServiceException("Event not found", HttpStatus.NOT_FOUND));
+
+        if (!event.getCreatedBy().equals(callerId) && !userIds.contains(callerId)) {
+            throw new ServiceException("You can only register a group you created the event for or belong to", HttpStatus.FORBIDDEN);
+        }
+
+        if (waitlist.hasWaiting(eventId)) {
+            throw new ServiceException("Event has a waitlist", HttpStatus.CONFLICT);
+        }
+
+        int count = userIds.size();
+        int currentParticipants = reserveSeats(event, count);
+        if (currentParticipants == SeatReservationEngine.REJECTED) {
+            throw new ServiceException("Not enough seats left for " + count + " users", HttpStatus.CONFLICT);
+        }
+
+        if (eventRepository.incrementParticipantsIfAvailable(eventId, count) == 0) {
+            resyncSeats(eventId);
+            throw new ServiceException("Not enough seats left for " + count + " users; others were taken on another node",
+                HttpStatus.CONFLICT);
+        }
+
+        // Any user already registered fails the whole group; the rollback undoes the others
+        for (String userId : userIds) {
+            if (!registrationIndex.register(userId, eventId)) {
+                throw new ServiceException("User " + userId + " is already registered for this event", HttpStatus.CONFLICT);
+            }
+        }
+
+        try {
+            registrationRepository.saveAllAndFlush(userIds.stream().map(userId -> new EventRegistration(userId, eventId)).toList());
+        } catch (DataIntegrityViolationException e) {
+            throw new ServiceException("A user in the group is already registered for this event", HttpStatus.CONFLICT);
+        }
+
+        // Numbered as if the group had signed up one after another
+        int firstSeat = currentParticipants - count + 1;
+        OffsetDateTime now = OffsetDateTime.now();
+        List<UserRegisteredForEventEvent> registeredEvents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            registeredEvents.add(new UserRegisteredForEventEvent(userIds.get(i), eventId, event.getTitle(),
+                firstSeat + i, event.getMaxParticipants(), now));
+        }
+        eventPublisher.publishUsersRegisteredForEvent(eventId, registeredEvents);
+        eventCache.invalidate(eventId);
+
+        if (currentParticipants >= event.getMaxParticipants()) {
+            eventPublisher.publishEventCapacityReached(new EventCapacityReachedEvent(
+                eventId,
+                event.getTitle(),
+                event.getMaxParticipants(),
+                now
+            ));
+        }
+        return count;
     }
 
     @Transactional
     public void deregisterFromEvent(String userId, String eventId) {
-        EventDto event = eventRepository.findById(eventId)
+        EventDto event = findEvent(eventId)
             .orElseThrow(() -> new ServiceException("Event not found", HttpStatus.NOT_FOUND));
 
-        EventRegistration registration = registrationRepository.findByUserIdAndEventId(userId, eventId)
-            .orElseThrow(() -> new ServiceException("Not registered for this event", HttpStatus.CONFLICT));
+        // The table decides, since the registration may have been made on another node
+        if (registrationRepository.deleteByUserIdAndEventId(userId, eventId) == 0) {
+            throw new ServiceException("Not registered for this event", HttpStatus.CONFLICT);
+        }
+        // Seeded while the index still counts this user, since the seat is only released after commit
+        reservationEngine.getTakenSeats(eventId);
+        registrationIndex.deregister(userId, eventId);
+
+        eventRepository.decrementParticipants(eventId);
+        eventPublisher.publishEventChanged(new EventChangedEvent(eventId, EventChangedEvent.DEREGISTERED, userId, OffsetDateTime.now()));
+        promoteFromWaitlist(event, 1);
+        eventCache.invalidate(eventId);
+    }
 
-        registrationRepository.delete(registration);
+    public RegistrationResult getRegistrationStatus(String userId, String eventId) {
+        if (registrationIndex.isRegistered(userId, eventId)) {
+            return RegistrationResult.registered();
+        }
+        int position = waitlist.getPosition(userId, eventId);
+        if (position == EventWaitlist.NOT_WAITING) {
+            throw new ServiceException("Not registered or waitlisted for this event", HttpStatus.NOT_FOUND);
+        }
+        return RegistrationResult.waitlisted(position);
+    }
 
-        event.setCurrentParticipants(Math.max(0, event.getCurrentParticipants() - 1));
-        eventRepository.save(event);
+    @Transactional
+    public void leaveWaitlist(String userId, String eventId) {
+        if (!waitlist.leave(userId, eventId)) {
+            throw new ServiceException("Not on the waitlist for this event", HttpStatus.CONFLICT);
+        }
+    }
+
+    // Hands free seats to the head of the waitlist in the caller's transaction. Each seat is secured in the
+    // seat engine and the events row before anyone is taken off the queue, so a lost race leaves the queue as is.
+    // Seats vacated in this transaction are still held in the seat engine: they pass straight to the next user,
+    // and any left over are only released once the transaction commits.
+    private void promoteFromWaitlist(EventDto event, int vacatedSeats) {
+        String eventId = event.getId();
+        int heldSeats = vacatedSeats;
+        while (waitlist.hasWaiting(eventId)) {
+            boolean held = heldSeats > 0;
+            int currentParticipants = held ? reservationEngine.getTakenSeats(eventId) : reserveSeats(event, 1);
+            if (currentParticipants == SeatReservationEngine.REJECTED) {
+                break;
+            }
+            if (held) {
+                heldSeats--;
+            }
+            if (eventRepository.incrementParticipantsIfAvailable(eventId) == 0) {
+                heldSeats = giveBackSeat(eventId, held, heldSeats);
+                break;
+            }
+
+            // Every registration insert follows an UPDATE of the events row, whose lock this transaction now holds,
+            // so the table check sees registrations made on other nodes and no new one can land before commit
+            Optional<String> next = waitlist.pollFirst(eventId);
+            if (next.isEmpty() || registrationIndex.refresh(next.get(), eventId)
+                    || !registrationIndex.register(next.get(), eventId)) {
+                // Queue drained by another promotion, or the user got in some other way
+                heldSeats = giveBackSeat(eventId, held, heldSeats);
+                eventRepository.decrementParticipants(eventId);
+                continue;
+            }
+
+            String userId = next.get();
+            // Flushed so anything that slipped past the check fails here as a conflict rather than at commit;
+            // a failed flush marks the transaction rollback-only, so the user cannot just be skipped
+            try {
+                registrationRepository.saveAndFlush(new EventRegistration(userId, eventId));
+            } catch (DataIntegrityViolationException e) {
+                throw new ServiceException("User " + userId + " registered elsewhere while being promoted", HttpStatus.CONFLICT);
+            }
+            OffsetDateTime now = OffsetDateTime.now();
+            eventPublisher.publishUserRegisteredForEvent(new UserRegisteredForEventEvent(
+                userId,
+                eventId,
+                event.getTitle(),
+                currentParticipants,
+                event.getMaxParticipants(),
+                now
+            ));
+            eventPublisher.publishWaitlistPromoted(new WaitlistPromotedEvent(userId, eventId, event.getTitle(), now));
+        }
+
+        if (heldSeats > 0) {
+            int unclaimed = heldSeats;
+            Transactions.afterCommit(() -> reservationEngine.release(eventId, unclaimed));
+        }
+    }
+
+    // The seat engine only counts this node's registrations, so seats freed on other nodes never reach it.
+    // When it turns someone away the events row is asked, and the counter is corrected if seats are free.
+    private int reserveSeats(EventDto event, int count) {
+        String eventId = event.getId();
+        int currentParticipants = reservationEngine.tryReserve(eventId, event.getMaxParticipants(), count);
+        if (currentParticipants != SeatReservationEngine.REJECTED) {
+            return currentParticipants;
+        }
+        Integer taken = eventRepository.findCurrentParticipants(eventId);
+        if (taken == null || taken + count > event.getMaxParticipants()) {
+            return SeatReservationEngine.REJECTED;
+        }
+        reservationEngine.resync(eventId, taken);
+        return reservationEngine.tryReserve(eventId, event.getMaxParticipants(), count);
+    }
+
+    // The engine admitted seats the events row no longer has; the row is the truth. Set again once the
+    // transaction ends, since a rollback hands back the seats this transaction reserved.
+    private void resyncSeats(String eventId) {
+        Integer taken = eventRepository.findCurrentParticipants(eventId);
+        if (taken != null) {
+            reservationEngine.resync(eventId, taken);
+            Transactions.afterCompletion(() -> reservationEngine.resync(eventId, taken));
+        }
+    }
+
+    // A held seat goes back to the held count, a freshly reserved one straight back to the seat engine
+    private int giveBackSeat(String eventId, boolean held, int heldSeats) {
+        if (held) {
+            return heldSeats + 1;
+        }
+        reservationEngine.release(eventId);
+        return heldSeats;
     }
 
     public List<EventDto> getUserEvents(String userId) {
@@ -180,10 +498,7 @@ public class EventService {
     }
 
     public List<EventDto> getRegisteredEvents(String userId) {
-        List<String> eventIds = registrationRepository.findByUserId(userId)
-            .stream()
-            .map(EventRegistration::getEventId)
-            .collect(Collectors.toList());
+        List<String> eventIds = registrationIndex.getRegisteredEventIds(userId);
 
         if (eventIds.isEmpty()) {
             return new ArrayList<>();
@@ -192,18 +507,22 @@ public class EventService {
         return eventRepository.findAllById(eventIds);
     }
 
-    private EventDto copyEvent(EventDto original) {
-        EventDto copy = new EventDto();
-        copy.setId(original.getId());
-        copy.setTitle(original.getTitle());
-        copy.setDescription(original.getDescription());
-        copy.setLocation(original.getLocation());
-        copy.setStartTime(original.getStartTime());
-        copy.setEndTime(original.getEndTime());
-        copy.setCreatedBy(original.getCreatedBy());
-        copy.setMaxParticipants(original.getMaxParticipants());
-        copy.setCurrentParticipants(original.getCurrentParticipants());
-        return copy;
+    private String encodeCursor(EventDto last) {
+        String position = last.getStartTime() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
     }
 
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(position);
+            }
+            OffsetDateTime.parse(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ServiceException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
 }
\ No newline at end of file
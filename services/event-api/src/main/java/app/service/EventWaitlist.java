@@ -0,0 +1,66 @@
+package app.service;
+
+import app.exception.ServiceException;
+import app.model.WaitlistEntry;
+import app.repository.WaitlistRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+// Per-event FIFO of users waiting for a seat. The event_waitlist table is the queue itself, so every event-api
+// node sees the same order: each operation is one statement on the (event_id, id) index in the caller's
+// transaction, and the head is taken under a row lock so two nodes promoting at once never take the same user.
+@Component
+public class EventWaitlist {
+
+    public static final int NOT_WAITING = 0;
+
+    private final WaitlistRepository waitlistRepository;
+
+    public EventWaitlist(WaitlistRepository waitlistRepository) {
+        this.waitlistRepository = waitlistRepository;
+    }
+
+    // The user's 1-based position; joining again keeps the original place
+    public int join(String userId, String eventId) {
+        int position = getPosition(userId, eventId);
+        if (position != NOT_WAITING) {
+            return position;
+        }
+        WaitlistEntry entry;
+        try {
+            entry = waitlistRepository.saveAndFlush(new WaitlistEntry(eventId, userId, OffsetDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            // The same user joining through another node at the same moment
+            throw new ServiceException("Already on the waitlist for this event", HttpStatus.CONFLICT);
+        }
+        return (int) waitlistRepository.countByEventIdAndIdLessThanEqual(eventId, entry.getId());
+    }
+
+    public boolean leave(String userId, String eventId) {
+        return waitlistRepository.deleteByEventIdAndUserId(eventId, userId) > 0;
+    }
+
+    // Takes the head of the queue; empty if the queue is empty or another node took the head first
+    public Optional<String> pollFirst(String eventId) {
+        Optional<WaitlistEntry> head = waitlistRepository.findFirstByEventIdOrderByIdAsc(eventId);
+        if (head.isEmpty() || waitlistRepository.deleteByEventIdAndUserId(eventId, head.get().getUserId()) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(head.get().getUserId());
+    }
+
+    public int getPosition(String userId, String eventId) {
+        return (int) waitlistRepository.findPosition(eventId, userId);
+    }
+
+    public boolean hasWaiting(String eventId) {
+        return waitlistRepository.existsByEventId(eventId);
+    }
+
+    public void removeEvent(String eventId) {
+        waitlistRepository.deleteByEventId(eventId);
+    }
+}
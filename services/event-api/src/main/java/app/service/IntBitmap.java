@@ -0,0 +1,272 @@
+package app.service;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Roaring-style compressed set of non-negative ints. Values are split by their high 16 bits into chunks,
+// and each chunk is a sorted array while sparse and a 65536-bit bitmap once it holds more than ARRAY_MAX
+// values, so small sets cost a few bytes per member and dense ones one bit. Not thread-safe.
+public class IntBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int cardinality;
+
+    public boolean add(int value) {
+        checkValue(value);
+        char key = highBits(value);
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new ArrayContainer());
+        }
+        Container container = containers[index];
+        if (!container.add(lowBits(value))) {
+            return false;
+        }
+        if (container instanceof ArrayContainer array && array.size > ARRAY_MAX) {
+            containers[index] = array.toBitmap();
+        }
+        cardinality++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        checkValue(value);
+        int index = Arrays.binarySearch(keys, highBits(value));
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        if (!container.remove(lowBits(value))) {
+            return false;
+        }
+        if (container.cardinality() == 0) {
+            removeContainer(index);
+        } else if (container instanceof BitmapContainer bitmap && bitmap.size <= ARRAY_MAX) {
+            containers[index] = bitmap.toArray();
+        }
+        cardinality--;
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, highBits(value));
+        return index >= 0 && containers[index].contains(lowBits(value));
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    // Ascending values
+    public void forEach(IntConsumer action) {
+        page(0, Integer.MAX_VALUE, action);
+    }
+
+    // Up to `limit` ascending values after skipping the first `offset`; whole chunks are skipped by count
+    public void page(int offset, int limit, IntConsumer action) {
+        int skip = offset;
+        int remaining = limit;
+        for (int i = 0; i < containers.length && remaining > 0; i++) {
+            Container container = containers[i];
+            if (skip >= container.cardinality()) {
+                skip -= container.cardinality();
+                continue;
+            }
+            int high = keys[i] << 16;
+            remaining -= container.visit(skip, remaining, low -> action.accept(high | low));
+            skip = 0;
+        }
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        char[] newKeys = new char[keys.length + 1];
+        Container[] newContainers = new Container[containers.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        newKeys[index] = key;
+        newContainers[index] = container;
+        System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+        System.arraycopy(containers, index, newContainers, index + 1, containers.length - index);
+        keys = newKeys;
+        containers = newContainers;
+    }
+
+    private void removeContainer(int index) {
+        char[] newKeys = new char[keys.length - 1];
+        Container[] newContainers = new Container[containers.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(containers, 0, newContainers, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(containers, index + 1, newContainers, index, containers.length - index - 1);
+        keys = newKeys;
+        containers = newContainers;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative: " + value);
+        }
+    }
+
+    private static char highBits(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char lowBits(int value) {
+        return (char) value;
+    }
+
+    private interface Container {
+        boolean add(char value);
+
+        boolean remove(char value);
+
+        boolean contains(char value);
+
+        int cardinality();
+
+        // Feeds up to `limit` ascending values after the first `skip` and returns how many were fed
+        int visit(int skip, int limit, IntConsumer action);
+    }
+
+    private static class ArrayContainer implements Container {
+        private char[] values = new char[4];
+        private int size;
+
+        @Override
+        public boolean add(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_MAX + 1));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return true;
+        }
+
+        @Override
+        public boolean remove(char value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public int visit(int skip, int limit, IntConsumer action) {
+            int end = (int) Math.min(size, (long) skip + limit);
+            for (int i = skip; i < end; i++) {
+                action.accept(values[i]);
+            }
+            return Math.max(0, end - skip);
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static class BitmapContainer implements Container {
+        private final long[] words = new long[1 << 10];
+        private int size;
+
+        @Override
+        public boolean add(char value) {
+            long bit = 1L << value;
+            long word = words[value >>> 6];
+            if ((word & bit) != 0) {
+                return false;
+            }
+            words[value >>> 6] = word | bit;
+            size++;
+            return true;
+        }
+
+        @Override
+        public boolean remove(char value) {
+            long bit = 1L << value;
+            long word = words[value >>> 6];
+            if ((word & bit) == 0) {
+                return false;
+            }
+            words[value >>> 6] = word & ~bit;
+            size--;
+            return true;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return size;
+        }
+
+        @Override
+        public int visit(int skip, int limit, IntConsumer action) {
+            int toSkip = skip;
+            int fed = 0;
+            for (int i = 0; i < words.length && fed < limit; i++) {
+                long word = words[i];
+                int bits = Long.bitCount(word);
+                if (toSkip >= bits) {
+                    toSkip -= bits;
+                    continue;
+                }
+                while (word != 0 && fed < limit) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (toSkip > 0) {
+                        toSkip--;
+                    } else {
+                        action.accept(i << 6 | bit);
+                        fed++;
+                    }
+                }
+            }
+            return fed;
+        }
+
+        ArrayContainer toArray() {
+            ArrayContainer array = new ArrayContainer();
+            array.values = new char[size];
+            visit(0, size, value -> array.values[array.size++] = (char) value);
+            return array;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package app.service;
+
+import app.events.EventChangedEvent;
+import app.model.EventRegistration;
+import app.publisher.EventEventPublisher;
+import app.repository.EventRegistrationRepository;
+import app.utils.Transactions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory copy of event_registrations: user ids are mapped to dense ints, each event keeps a compressed
+// bitmap of its attendees and each user a set of event ids. Loaded from the table at startup and changed
+// together with the writes in EventService, which undo themselves if their transaction rolls back.
+// Other nodes' registrations arrive from event-api's topics, so reads lag them by the outbox relay interval;
+// writes check the table itself and the unique (user_id, event_id) constraint stays the backstop.
+@Component
+public class RegistrationIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationIndex.class);
+
+    private final EventRegistrationRepository registrationRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Integer> userOrdinals = new ConcurrentHashMap<>();
+    private final List<String> users = new ArrayList<>(); // ordinal -> user id, guarded by itself
+    private final Map<String, IntBitmap> attendees = new ConcurrentHashMap<>(); // each guarded by itself
+    private final Map<String, Set<String>> eventsByUser = new ConcurrentHashMap<>();
+
+    public RegistrationIndex(EventRegistrationRepository registrationRepository) {
+        this.registrationRepository = registrationRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        // Registration order, so attendee ordinals follow who signed up first
+        List<EventRegistration> registrations = registrationRepository.findAll(Sort.by("id"));
+        for (EventRegistration registration : registrations) {
+            add(registration.getUserId(), registration.getEventId());
+        }
+        logger.info("Registration index built from {} registrations", registrations.size());
+    }
+
+    // False if the user already holds a registration for the event
+    public boolean register(String userId, String eventId) {
+        if (!add(userId, eventId)) {
+            return false;
+        }
+        Transactions.onRollback(() -> remove(userId, eventId));
+        return true;
+    }
+
+    // False if the user holds no registration for the event
+    public boolean deregister(String userId, String eventId) {
+        if (!remove(userId, eventId)) {
+            return false;
+        }
+        Transactions.onRollback(() -> add(userId, eventId));
+        return true;
+    }
+
+    // Re-reads one registration from the table, so messages applied out of order still end on the latest state
+    public boolean refresh(String userId, String eventId) {
+        if (registrationRepository.findByUserIdAndEventId(userId, eventId).isPresent()) {
+            add(userId, eventId);
+            return true;
+        }
+        remove(userId, eventId);
+        return false;
+    }
+
+    // Each instance keeps its own index, so the group id is unique per instance
+    @KafkaListener(topics = {EventEventPublisher.USER_REGISTERED_TOPIC, EventEventPublisher.EVENT_CHANGED_TOPIC},
+                   groupId = "event-api-registrations-#{T(java.util.UUID).randomUUID()}",
+                   properties = "auto.offset.reset=latest",
+                   autoStartup = "${event.registrations.updates-enabled:true}")
+    public void onRegistrationChanged(String message) {
+        try {
+            JsonNode event = objectMapper.readTree(message);
+            String eventId = event.get("eventId").asText();
+            String changeType = event.path("changeType").asText(null);
+            if (EventChangedEvent.DELETED.equals(changeType)) {
+                dropEvent(eventId);
+            } else if ((changeType == null || EventChangedEvent.DEREGISTERED.equals(changeType))
+                    && event.hasNonNull("userId")) {
+                refresh(event.get("userId").asText(), eventId);
+            }
+        } catch (Exception e) {
+            logger.error("Error applying registration change: {}", message, e);
+        }
+    }
+
+    // Applied once the deleting transaction commits
+    public void removeEvent(String eventId) {
+        Transactions.afterCommit(() -> dropEvent(eventId));
+    }
+
+    public boolean isRegistered(String userId, String eventId) {
+        Integer ordinal = userOrdinals.get(userId);
+        IntBitmap bitmap = attendees.get(eventId);
+        if (ordinal == null || bitmap == null) {
+            return false;
+        }
+        synchronized (bitmap) {
+            return bitmap.contains(ordinal);
+        }
+    }
+
+    public int countAttendees(String eventId) {
+        IntBitmap bitmap = attendees.get(eventId);
+        if (bitmap == null) {
+            return 0;
+        }
+        synchronized (bitmap) {
+            return bitmap.cardinality();
+        }
+    }
+
+    // Attendee user ids in the order this node first saw each user register for any event (the order of
+    // their ordinals), not the order they signed up for this one. Stable between pages while the node runs;
+    // a restart rebuilds it from the oldest registration of each user.
+    public List<String> getAttendees(String eventId, Pageable pageable) {
+        IntBitmap bitmap = attendees.get(eventId);
+        return bitmap == null ? new ArrayList<>() : userIds(bitmap, pageable);
+    }
+
+    public List<String> getRegisteredEventIds(String userId) {
+        Set<String> events = eventsByUser.get(userId);
+        return events == null ? new ArrayList<>() : new ArrayList<>(events);
+    }
+
+    private boolean add(String userId, String eventId) {
+        int ordinal = ordinalOf(userId);
+        IntBitmap bitmap = attendees.computeIfAbsent(eventId, id -> new IntBitmap());
+        // Both sides change under the event's lock so a racing deregistration cannot interleave
+        synchronized (bitmap) {
+            if (!bitmap.add(ordinal)) {
+                return false;
+            }
+            eventsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(eventId);
+        }
+        return true;
+    }
+
+    private boolean remove(String userId, String eventId) {
+        Integer ordinal = userOrdinals.get(userId);
+        IntBitmap bitmap = attendees.get(eventId);
+        if (ordinal == null || bitmap == null) {
+            return false;
+        }
+        synchronized (bitmap) {
+            if (!bitmap.remove(ordinal)) {
+                return false;
+            }
+            Set<String> events = eventsByUser.get(userId);
+            if (events != null) {
+                events.remove(eventId);
+            }
+        }
+        return true;
+    }
+
+    private void dropEvent(String eventId) {
+        IntBitmap bitmap = attendees.remove(eventId);
+        if (bitmap == null) {
+            return;
+        }
+        for (String userId : userIds(bitmap, Pageable.unpaged())) {
+            Set<String> events = eventsByUser.get(userId);
+            if (events != null) {
+                events.remove(eventId);
+            }
+        }
+    }
+
+    private int ordinalOf(String userId) {
+        return userOrdinals.computeIfAbsent(userId, id -> {
+            synchronized (users) {
+                users.add(id);
+                return users.size() - 1;
+            }
+        });
+    }
+
+    private List<String> userIds(IntBitmap bitmap, Pageable pageable) {
+        List<Integer> ordinals = new ArrayList<>();
+        synchronized (bitmap) {
+            if (pageable.isPaged()) {
+                bitmap.page((int) pageable.getOffset(), pageable.getPageSize(), ordinals::add);
+            } else {
+                bitmap.forEach(ordinals::add);
+            }
+        }
+        List<String> userIds = new ArrayList<>(ordinals.size());
+        synchronized (users) {
+            for (int ordinal : ordinals) {
+                userIds.add(users.get(ordinal));
+            }
+        }
+        return userIds;
+    }
+}
@@ -0,0 +1,72 @@
+package app.service;
+
+import app.utils.Transactions;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class SeatReservationEngine {
+
+    public static final int REJECTED = -1;
+
+    private final RegistrationIndex registrationIndex;
+
+    // Per-event taken seat counters, seeded from the registration index on first use
+    private final Map<String, AtomicInteger> takenSeats = new ConcurrentHashMap<>();
+
+    public SeatReservationEngine(RegistrationIndex registrationIndex) {
+        this.registrationIndex = registrationIndex;
+    }
+
+    // Returns the new number of taken seats, or REJECTED when the event is full
+    public int tryReserve(String eventId, int maxParticipants) {
+        return tryReserve(eventId, maxParticipants, 1);
+    }
+
+    // All of the seats or none of them
+    public int tryReserve(String eventId, int maxParticipants, int count) {
+        AtomicInteger seats = seatsFor(eventId);
+        while (true) {
+            int taken = seats.get();
+            if (taken + count > maxParticipants) {
+                return REJECTED;
+            }
+            if (seats.compareAndSet(taken, taken + count)) {
+                // Hand the seats back if the surrounding transaction never commits the registration
+                Transactions.onRollback(() -> release(eventId, count));
+                return taken + count;
+            }
+        }
+    }
+
+    public void release(String eventId) {
+        release(eventId, 1);
+    }
+
+    public void release(String eventId, int count) {
+        AtomicInteger seats = takenSeats.get(eventId);
+        if (seats != null) {
+            seats.updateAndGet(taken -> Math.max(0, taken - count));
+        }
+    }
+
+    // Replaces the counter with the taken seats read from the events table
+    public void resync(String eventId, int takenSeats) {
+        seatsFor(eventId).set(takenSeats);
+    }
+
+    public void evict(String eventId) {
+        takenSeats.remove(eventId);
+    }
+
+    public int getTakenSeats(String eventId) {
+        return seatsFor(eventId).get();
+    }
+
+    private AtomicInteger seatsFor(String eventId) {
+        return takenSeats.computeIfAbsent(eventId,
+            id -> new AtomicInteger(registrationIndex.countAttendees(id)));
+    }
+}
@@ -1,16 +1,22 @@
 package app.stream;
 
+import app.events.UserRegisteredForEventEvent;
+import app.stream.state.LocalStateStore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Component
-public class CapacityMonitoringProcessor {
+public class CapacityMonitoringProcessor extends CheckpointedProcessor<CapacityMonitoringProcessor.CapacityState> {
     private static final Logger logger = LoggerFactory.getLogger(CapacityMonitoringProcessor.class);
 
     private static final double WARNING_THRESHOLD = 0.75;  // 75% capacity
@@ -18,57 +24,58 @@ public class CapacityMonitoringProcessor {
 
     private final ObjectMapper objectMapper;
 
-    // In-memory store for capacity tracking (in production, use Kafka Streams state stores)
-    private final Map<String, EventCapacity> eventCapacities = new ConcurrentHashMap<>();
-
-    public CapacityMonitoringProcessor() {
+    public CapacityMonitoringProcessor(@Value("${event.state.dir:state/event-api}") String stateDir) {
+        super(new LocalStateStore<>(Path.of(stateDir), "capacity-monitor", CapacityState.class, CapacityState::new));
         this.objectMapper = new ObjectMapper();
     }
 
-    @KafkaListener(topics = "user-registered-event", groupId = "capacity-monitor-group")
-    public void monitorCapacity(String message) {
+    // Fed by RegistrationEventDispatcher, which decodes each record once for all processors
+    public void monitorCapacity(ConsumerRecord<?, ?> record, UserRegisteredForEventEvent event) {
         try {
-            JsonNode event = objectMapper.readTree(message);
-
-            String eventId = event.get("eventId").asText();
-            String eventTitle = event.get("eventTitle").asText();
-            int currentParticipants = event.get("currentParticipants").asInt();
-            int maxParticipants = event.get("maxParticipants").asInt();
-
-            // Update capacity tracking
-            EventCapacity capacity = eventCapacities.computeIfAbsent(
-                eventId,
-                id -> new EventCapacity(id, eventTitle, maxParticipants)
-            );
-
-            capacity.updateCurrentParticipants(currentParticipants);
-
-            double utilizationPercent = capacity.getUtilizationPercent();
-
-            logger.info("Capacity Monitor - Event: '{}' at {}/{} capacity ({}%)",
-                eventTitle, currentParticipants, maxParticipants, String.format("%.1f", utilizationPercent));
+            String eventId = event.getEventId();
+            String eventTitle = event.getEventTitle();
+            int currentParticipants = event.getCurrentParticipants();
+            int maxParticipants = event.getMaxParticipants();
 
-            // Check thresholds and issue alerts
-            if (utilizationPercent >= 100.0 && !capacity.isFullAlertSent()) {
-                logger.error("CAPACITY ALERT [FULL]: Event '{}' has reached MAXIMUM capacity!",
-                    eventTitle);
-                capacity.setFullAlertSent(true);
-
-            } else if (utilizationPercent >= CRITICAL_THRESHOLD * 100
-                    && !capacity.isCriticalAlertSent()) {
-                logger.warn("CAPACITY ALERT [CRITICAL]: Event '{}' at {}% capacity (threshold: {}%)",
-                    eventTitle, String.format("%.1f", utilizationPercent), CRITICAL_THRESHOLD * 100);
-                capacity.setCriticalAlertSent(true);
-
-            } else if (utilizationPercent >= WARNING_THRESHOLD * 100
-                    && !capacity.isWarningAlertSent()) {
-                logger.info("CAPACITY ALERT [WARNING]: Event '{}' at {}% capacity (threshold: {}%)",
-                    eventTitle, String.format("%.1f", utilizationPercent), WARNING_THRESHOLD * 100);
-                capacity.setWarningAlertSent(true);
-            }
+            store.apply(record, state -> checkThresholds(state, eventId, eventTitle, currentParticipants, maxParticipants));
 
         } catch (Exception e) {
-            logger.error("Error monitoring capacity: {}", message, e);
+            logger.error("Error monitoring capacity: {}", event, e);
+        }
+    }
+
+    private void checkThresholds(CapacityState state, String eventId, String eventTitle,
+                                 int currentParticipants, int maxParticipants) {
+        // Update capacity tracking
+        EventCapacity capacity = state.eventCapacities.computeIfAbsent(
+            eventId,
+            id -> new EventCapacity(id, eventTitle, maxParticipants)
+        );
+
+        capacity.updateCurrentParticipants(currentParticipants);
+
+        double utilizationPercent = capacity.getUtilizationPercent();
+
+        logger.info("Capacity Monitor - Event: '{}' at {}/{} capacity ({}%)",
+            eventTitle, currentParticipants, maxParticipants, String.format("%.1f", utilizationPercent));
+
+        // Check thresholds and issue alerts
+        if (utilizationPercent >= 100.0 && !capacity.isFullAlertSent()) {
+            logger.error("CAPACITY ALERT [FULL]: Event '{}' has reached MAXIMUM capacity!",
+                eventTitle);
+            capacity.setFullAlertSent(true);
+
+        } else if (utilizationPercent >= CRITICAL_THRESHOLD * 100
+                && !capacity.isCriticalAlertSent()) {
+            logger.warn("CAPACITY ALERT [CRITICAL]: Event '{}' at {}% capacity (threshold: {}%)",
+                eventTitle, String.format("%.1f", utilizationPercent), CRITICAL_THRESHOLD * 100);
+            capacity.setCriticalAlertSent(true);
+
+        } else if (utilizationPercent >= WARNING_THRESHOLD * 100
+                && !capacity.isWarningAlertSent()) {
+            logger.info("CAPACITY ALERT [WARNING]: Event '{}' at {}% capacity (threshold: {}%)",
+                eventTitle, String.format("%.1f", utilizationPercent), WARNING_THRESHOLD * 100);
+            capacity.setWarningAlertSent(true);
         }
     }
 
@@ -87,16 +94,23 @@ public class CapacityMonitoringProcessor {
         }
     }
 
+    // Alert flags are part of the state so a restart does not re-raise alerts already sent
+    static class CapacityState {
+        private Map<String, EventCapacity> eventCapacities = new HashMap<>();
+    }
+
     private static class EventCapacity {
-        private final String eventId;
-        private final String eventTitle;
-        private final int maxParticipants;
+        private String eventId;
+        private String eventTitle;
+        private int maxParticipants;
         private int currentParticipants;
 
         private boolean warningAlertSent = false;
         private boolean criticalAlertSent = false;
         private boolean fullAlertSent = false;
 
+        private EventCapacity() {}
+
         public EventCapacity(String eventId, String eventTitle, int maxParticipants) {
             this.eventId = eventId;
             this.eventTitle = eventTitle;
@@ -139,10 +153,12 @@ public class CapacityMonitoringProcessor {
     }
 
     public Map<String, Double> getCapacityStatus() {
-        Map<String, Double> status = new ConcurrentHashMap<>();
-        eventCapacities.forEach((eventId, capacity) -> {
-            status.put(eventId, capacity.getUtilizationPercent());
+        return store.query(state -> {
+            Map<String, Double> status = new ConcurrentHashMap<>();
+            state.eventCapacities.forEach((eventId, capacity) -> {
+                status.put(eventId, capacity.getUtilizationPercent());
+            });
+            return status;
         });
-        return status;
     }
 }
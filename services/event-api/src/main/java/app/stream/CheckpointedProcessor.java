@@ -0,0 +1,52 @@
+package app.stream;
+
+import app.stream.state.LocalStateStore;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import java.io.IOException;
+import java.util.Map;
+
+// Base for stream processors whose state lives in a LocalStateStore: snapshots it periodically
+// and on shutdown, and rewinds assigned partitions to the snapshot's checkpoint.
+public abstract class CheckpointedProcessor<S> implements ConsumerSeekAware {
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointedProcessor.class);
+
+    protected final LocalStateStore<S> store;
+
+    protected CheckpointedProcessor(LocalStateStore<S> store) {
+        this.store = store;
+    }
+
+    public Long nextOffset(String topic, int partition) {
+        return store.nextOffset(topic, partition);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(partition -> {
+            Long next = store.nextOffset(partition.topic(), partition.partition());
+            if (next != null) {
+                callback.seek(partition.topic(), partition.partition(), next);
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "${event.state.snapshot-interval-ms:10000}",
+               fixedDelayString = "${event.state.snapshot-interval-ms:10000}")
+    public void snapshot() {
+        try {
+            store.snapshot();
+        } catch (IOException e) {
+            logger.error("Failed to snapshot state for {}", getClass().getSimpleName(), e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        snapshot();
+    }
+}
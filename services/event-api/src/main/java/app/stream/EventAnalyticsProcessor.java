@@ -1,34 +1,37 @@
 package app.stream;
 
+import app.events.UserRegisteredForEventEvent;
+import app.stream.state.LocalStateStore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
-public class EventAnalyticsProcessor {
+public class EventAnalyticsProcessor extends CheckpointedProcessor<EventAnalyticsProcessor.AnalyticsState> {
     private static final Logger logger = LoggerFactory.getLogger(EventAnalyticsProcessor.class);
 
     private final ObjectMapper objectMapper;
 
-    // Real-time analytics state
-    private final Map<String, EventAnalytics> eventAnalytics = new ConcurrentHashMap<>();
-    private final AtomicInteger totalRegistrations = new AtomicInteger(0);
-    private final AtomicInteger totalEventsCreated = new AtomicInteger(0);
-
-    public EventAnalyticsProcessor() {
+    public EventAnalyticsProcessor(@Value("${event.state.dir:state/event-api}") String stateDir) {
+        super(new LocalStateStore<>(Path.of(stateDir), "event-analytics", AnalyticsState.class, AnalyticsState::new));
         this.objectMapper = new ObjectMapper();
     }
 
     @KafkaListener(topics = "event-created", groupId = "analytics-processor-group")
-    public void processEventCreated(String message) {
+    public void processEventCreated(ConsumerRecord<String, String> record) {
+        String message = record.value();
         try {
             JsonNode event = objectMapper.readTree(message);
 
@@ -37,76 +40,89 @@ public class EventAnalyticsProcessor {
             String location = event.get("location").asText();
 
             // Initialize analytics for this event
-            EventAnalytics analytics = new EventAnalytics(eventId, eventTitle, location);
-            eventAnalytics.put(eventId, analytics);
-
-            totalEventsCreated.incrementAndGet();
+            store.apply(record, state -> {
+                state.eventAnalytics.put(eventId, new EventAnalytics(eventId, eventTitle, location));
+                state.totalEventsCreated++;
 
-            logger.info("Analytics: Event created - {} (Total events: {})",
-                eventTitle, totalEventsCreated.get());
+                logger.info("Analytics: Event created - {} (Total events: {})",
+                    eventTitle, state.totalEventsCreated);
+            });
 
         } catch (Exception e) {
             logger.error("Error processing event creation for analytics: {}", message, e);
         }
     }
 
-    @KafkaListener(topics = "user-registered-event", groupId = "analytics-processor-group")
-    public void processRegistration(String message) {
+    // Fed by RegistrationEventDispatcher, which decodes each record once for all processors
+    public void processRegistration(ConsumerRecord<?, ?> record, UserRegisteredForEventEvent event) {
         try {
-            JsonNode event = objectMapper.readTree(message);
+            String eventId = event.getEventId();
+            String eventTitle = event.getEventTitle();
 
-            String eventId = event.get("eventId").asText();
-            String eventTitle = event.get("eventTitle").asText();
-            OffsetDateTime timestamp = OffsetDateTime.now();
+            // Record time rather than processing time, so replaying after a restore is deterministic
+            OffsetDateTime timestamp = OffsetDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneOffset.UTC);
 
-            // Update event-specific analytics
-            EventAnalytics analytics = eventAnalytics.computeIfAbsent(
-                eventId,
-                id -> new EventAnalytics(id, eventTitle, "Unknown")
-            );
+            store.apply(record, state -> {
+                // Update event-specific analytics
+                EventAnalytics analytics = state.eventAnalytics.computeIfAbsent(
+                    eventId,
+                    id -> new EventAnalytics(id, eventTitle, "Unknown")
+                );
 
-            analytics.addRegistration(timestamp);
-            totalRegistrations.incrementAndGet();
+                analytics.addRegistration(timestamp);
+                state.totalRegistrations++;
 
-            double velocity = analytics.getRegistrationVelocity();
+                double velocity = analytics.getRegistrationVelocity();
 
-            logger.info("Analytics: Registration for '{}' - Total: {}, Velocity: {}/min",
-                eventTitle, analytics.getTotalRegistrations(), String.format("%.2f", velocity));
+                logger.info("Analytics: Registration for '{}' - Total: {}, Velocity: {}/min",
+                    eventTitle, analytics.getTotalRegistrations(), String.format("%.2f", velocity));
+            });
 
         } catch (Exception e) {
-            logger.error("Error processing registration for analytics: {}", message, e);
+            logger.error("Error processing registration for analytics: {}", event, e);
         }
     }
 
     @KafkaListener(topics = "event-capacity-reached", groupId = "analytics-processor-group")
-    public void processCapacityReached(String message) {
+    public void processCapacityReached(ConsumerRecord<String, String> record) {
+        String message = record.value();
         try {
             JsonNode event = objectMapper.readTree(message);
 
             String eventId = event.get("eventId").asText();
             String eventTitle = event.get("eventTitle").asText();
 
-            EventAnalytics analytics = eventAnalytics.get(eventId);
-            if (analytics != null) {
-                analytics.setFullyBooked(true);
-                logger.info("Analytics: Event '{}' is now fully booked", eventTitle);
-            }
+            store.apply(record, state -> {
+                EventAnalytics analytics = state.eventAnalytics.get(eventId);
+                if (analytics != null) {
+                    analytics.setFullyBooked(true);
+                    logger.info("Analytics: Event '{}' is now fully booked", eventTitle);
+                }
+            });
 
         } catch (Exception e) {
             logger.error("Error processing capacity reached for analytics: {}", message, e);
         }
     }
 
+    // Real-time analytics state
+    static class AnalyticsState {
+        private Map<String, EventAnalytics> eventAnalytics = new HashMap<>();
+        private int totalRegistrations;
+        private int totalEventsCreated;
+    }
+
     private static class EventAnalytics {
-        private final String eventId;
-        private final String eventTitle;
-        private final String location;
-        private final AtomicInteger totalRegistrations = new AtomicInteger(0);
-        private final ConcurrentHashMap<Long, Integer> registrationsByMinute = new ConcurrentHashMap<>();
+        private String eventId;
+        private String eventTitle;
+        private String location;
+        private int totalRegistrations;
         private OffsetDateTime firstRegistration;
         private OffsetDateTime lastRegistration;
         private boolean fullyBooked = false;
 
+        private EventAnalytics() {}
+
         public EventAnalytics(String eventId, String eventTitle, String location) {
             this.eventId = eventId;
             this.eventTitle = eventTitle;
@@ -119,15 +135,11 @@ public class EventAnalyticsProcessor {
             }
             lastRegistration = timestamp;
 
-            totalRegistrations.incrementAndGet();
-
-            // Track registrations per minute
-            long minuteKey = timestamp.toEpochSecond() / 60;
-            registrationsByMinute.merge(minuteKey, 1, Integer::sum);
+            totalRegistrations++;
         }
 
         public int getTotalRegistrations() {
-            return totalRegistrations.get();
+            return totalRegistrations;
         }
 
         public double getRegistrationVelocity() {
@@ -137,11 +149,11 @@ public class EventAnalyticsProcessor {
 
             long elapsedSeconds = java.time.Duration.between(firstRegistration, lastRegistration).getSeconds();
             if (elapsedSeconds == 0) {
-                return totalRegistrations.get();
+                return totalRegistrations;
             }
 
             double minutes = elapsedSeconds / 60.0;
-            return totalRegistrations.get() / Math.max(minutes, 1.0);
+            return totalRegistrations / Math.max(minutes, 1.0);
         }
 
         public String getEventTitle() {
@@ -162,33 +174,37 @@ public class EventAnalyticsProcessor {
     }
 
     public Map<String, Map<String, Object>> getEventAnalytics() {
-        Map<String, Map<String, Object>> result = new ConcurrentHashMap<>();
+        return store.query(state -> {
+            Map<String, Map<String, Object>> result = new ConcurrentHashMap<>();
 
-        eventAnalytics.forEach((eventId, analytics) -> {
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("eventTitle", analytics.getEventTitle());
-            stats.put("location", analytics.getLocation());
-            stats.put("totalRegistrations", analytics.getTotalRegistrations());
-            stats.put("registrationVelocity", analytics.getRegistrationVelocity());
-            stats.put("fullyBooked", analytics.isFullyBooked());
+            state.eventAnalytics.forEach((eventId, analytics) -> {
+                Map<String, Object> stats = new HashMap<>();
+                stats.put("eventTitle", analytics.getEventTitle());
+                stats.put("location", analytics.getLocation());
+                stats.put("totalRegistrations", analytics.getTotalRegistrations());
+                stats.put("registrationVelocity", analytics.getRegistrationVelocity());
+                stats.put("fullyBooked", analytics.isFullyBooked());
 
-            result.put(eventId, stats);
-        });
+                result.put(eventId, stats);
+            });
 
-        return result;
+            return result;
+        });
     }
 
     public Map<String, Object> getGlobalAnalytics() {
-        Map<String, Object> summary = new ConcurrentHashMap<>();
-        summary.put("totalEventsCreated", totalEventsCreated.get());
-        summary.put("totalRegistrations", totalRegistrations.get());
-        summary.put("activeEvents", eventAnalytics.size());
-
-        // Calculate average registrations per event
-        double avgRegistrations = eventAnalytics.isEmpty() ? 0.0 :
-            totalRegistrations.get() / (double) eventAnalytics.size();
-        summary.put("avgRegistrationsPerEvent", avgRegistrations);
-
-        return summary;
+        return store.query(state -> {
+            Map<String, Object> summary = new ConcurrentHashMap<>();
+            summary.put("totalEventsCreated", state.totalEventsCreated);
+            summary.put("totalRegistrations", state.totalRegistrations);
+            summary.put("activeEvents", state.eventAnalytics.size());
+
+            // Calculate average registrations per event
+            double avgRegistrations = state.eventAnalytics.isEmpty() ? 0.0 :
+                state.totalRegistrations / (double) state.eventAnalytics.size();
+            summary.put("avgRegistrationsPerEvent", avgRegistrations);
+
+            return summary;
+        });
     }
 }
@@ -2,56 +2,88 @@ package app.publisher;
 
 import app.events.EventCreatedEvent;
 import app.events.EventCapacityReachedEvent;
+import app.events.EventChangedEvent;
 import app.events.UserRegisteredForEventEvent;
+import app.events.WaitlistPromotedEvent;
+import app.exception.ServiceException;
+import app.model.OutboxMessage;
+import app.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.support.JacksonUtils;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.OffsetDateTime;
+import java.util.List;
 
+// Writes domain events to the outbox in the caller's transaction; OutboxRelay ships them to Kafka
 @Component
 public class EventEventPublisher {
     private static final Logger logger = LoggerFactory.getLogger(EventEventPublisher.class);
 
-    private static final String EVENT_CREATED_TOPIC = "event-created";
-    private static final String USER_REGISTERED_TOPIC = "user-registered-event";
-    private static final String EVENT_CAPACITY_REACHED_TOPIC = "event-capacity-reached";
+    public static final String EVENT_CREATED_TOPIC = "event-created";
+    public static final String USER_REGISTERED_TOPIC = "user-registered-event";
+    public static final String EVENT_CAPACITY_REACHED_TOPIC = "event-capacity-reached";
+    public static final String EVENT_CHANGED_TOPIC = "event-changed";
+    public static final String WAITLIST_PROMOTED_TOPIC = "waitlist-promoted";
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxRepository outboxRepository;
 
-    public EventEventPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    // Same settings as the Kafka JsonSerializer so relayed payloads are byte-for-byte what consumers expect
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+
+    public EventEventPublisher(OutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
     }
 
+    @Transactional
     public void publishEventCreated(EventCreatedEvent event) {
-        try {
-            logger.info("Publishing EventCreatedEvent for event: {}", event.getEventId());
-            kafkaTemplate.send(EVENT_CREATED_TOPIC, event.getEventId(), event);
-            logger.info("Successfully published EventCreatedEvent for event: {}", event.getEventId());
-        } catch (Exception e) {
-            logger.error("Failed to publish EventCreatedEvent for event: {}", event.getEventId(), e);
-        }
+        enqueue(EVENT_CREATED_TOPIC, event.getEventId(), event);
+        logger.debug("Queued EventCreatedEvent for event: {}", event.getEventId());
     }
 
+    @Transactional
     public void publishUserRegisteredForEvent(UserRegisteredForEventEvent event) {
-        try {
-            logger.info("Publishing UserRegisteredForEventEvent - User: {}, Event: {}",
-                event.getUserId(), event.getEventId());
-            kafkaTemplate.send(USER_REGISTERED_TOPIC, event.getEventId(), event);
-            logger.info("Successfully published UserRegisteredForEventEvent - User: {}, Event: {}",
-                event.getUserId(), event.getEventId());
-        } catch (Exception e) {
-            logger.error("Failed to publish UserRegisteredForEventEvent - User: {}, Event: {}",
-                event.getUserId(), event.getEventId(), e);
-        }
+        enqueue(USER_REGISTERED_TOPIC, event.getEventId(), event);
+        logger.debug("Queued UserRegisteredForEventEvent - User: {}, Event: {}",
+            event.getUserId(), event.getEventId());
+    }
+
+    // One outbox row for the whole group; OutboxRelay sends each element as its own record
+    @Transactional
+    public void publishUsersRegisteredForEvent(String eventId, List<UserRegisteredForEventEvent> events) {
+        enqueue(USER_REGISTERED_TOPIC, eventId, events);
+        logger.debug("Queued {} UserRegisteredForEventEvents for event: {}", events.size(), eventId);
     }
 
+    @Transactional
     public void publishEventCapacityReached(EventCapacityReachedEvent event) {
+        enqueue(EVENT_CAPACITY_REACHED_TOPIC, event.getEventId(), event);
+        logger.debug("Queued EventCapacityReachedEvent for event: {}", event.getEventId());
+    }
+
+    @Transactional
+    public void publishEventChanged(EventChangedEvent event) {
+        enqueue(EVENT_CHANGED_TOPIC, event.getEventId(), event);
+        logger.debug("Queued EventChangedEvent - Event: {}, Change: {}", event.getEventId(), event.getChangeType());
+    }
+
+    @Transactional
+    public void publishWaitlistPromoted(WaitlistPromotedEvent event) {
+        enqueue(WAITLIST_PROMOTED_TOPIC, event.getEventId(), event);
+        logger.debug("Queued WaitlistPromotedEvent - User: {}, Event: {}", event.getUserId(), event.getEventId());
+    }
+
+    private void enqueue(String topic, String key, Object event) {
         try {
-            logger.info("Publishing EventCapacityReachedEvent for event: {}", event.getEventId());
-            kafkaTemplate.send(EVENT_CAPACITY_REACHED_TOPIC, event.getEventId(), event);
-            logger.info("Successfully published EventCapacityReachedEvent for event: {}", event.getEventId());
-        } catch (Exception e) {
-            logger.error("Failed to publish EventCapacityReachedEvent for event: {}", event.getEventId(), e);
+            String payload = objectMapper.writeValueAsString(event);
+            outboxRepository.save(new OutboxMessage(topic, key, payload, OffsetDateTime.now()));
+        } catch (JsonProcessingException e) {
+            throw new ServiceException("Failed to serialise " + event.getClass().getSimpleName(),
+                HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 }
@@ -0,0 +1,92 @@
+package app.publisher;
+
+import app.model.OutboxMessage;
+import app.repository.OutboxRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Drains the outbox to Kafka in id order; rows are only deleted once the broker acks them (at-least-once)
+@Component
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+
+    private final Counter sent;
+    private final Counter failed;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${event.outbox.batch-size:100}") int batchSize,
+                       @Value("${event.outbox.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = new ObjectMapper();
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.sent = outcomeCounter(meterRegistry, "sent");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("event.outbox.records")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${event.outbox.relay-interval-ms:250}",
+               fixedDelayString = "${event.outbox.relay-interval-ms:250}")
+    public void relay() {
+        try {
+            // Keep draining while full batches come back so a backlog clears without waiting a tick per batch
+            while (drainBatch() == batchSize) {
+                // next batch
+            }
+        } catch (Exception e) {
+            logger.warn("Outbox relay paused, will retry: {}", e.getMessage());
+        }
+    }
+
+    public int drainBatch() throws Exception {
+        List<OutboxMessage> batch = outboxRepository.findByOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            JsonNode payload = objectMapper.readTree(message.getPayload());
+            // An array is a group of events queued together, each sent as its own record
+            for (JsonNode event : payload.isArray() ? payload : List.of(payload)) {
+                sends.add(kafkaTemplate.send(message.getTopic(), message.getMessageKey(), event)
+                    .whenComplete((result, e) -> (e == null ? sent : failed).increment()));
+            }
+        }
+        // Sends are pipelined into producer batches; only the row deletes wait, so they never outrun the acks
+        kafkaTemplate.flush();
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+
+        outboxRepository.deleteAllByIdInBatch(batch.stream().map(OutboxMessage::getId).toList());
+        logger.debug("Relayed {} outbox messages", batch.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,64 @@
+package app.stream;
+
+import app.events.UserRegisteredForEventEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Single consumer for the hottest topic: each record is fetched and decoded once, then handed
+// to every processor in-process instead of once per processor consumer group.
+@Component
+public class RegistrationEventDispatcher implements ConsumerSeekAware {
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationEventDispatcher.class);
+
+    public static final String TOPIC = "user-registered-event";
+
+    private final TrendingEventsProcessor trendingProcessor;
+    private final CapacityMonitoringProcessor capacityProcessor;
+    private final EventAnalyticsProcessor analyticsProcessor;
+    private final ObjectMapper objectMapper;
+
+    public RegistrationEventDispatcher(TrendingEventsProcessor trendingProcessor,
+                                       CapacityMonitoringProcessor capacityProcessor,
+                                       EventAnalyticsProcessor analyticsProcessor) {
+        this.trendingProcessor = trendingProcessor;
+        this.capacityProcessor = capacityProcessor;
+        this.analyticsProcessor = analyticsProcessor;
+        this.objectMapper = JacksonUtils.enhancedObjectMapper();
+    }
+
+    @KafkaListener(topics = TOPIC, groupId = "registration-fanout-group")
+    public void dispatch(ConsumerRecord<String, String> record) {
+        UserRegisteredForEventEvent event;
+        try {
+            event = objectMapper.readValue(record.value(), UserRegisteredForEventEvent.class);
+        } catch (Exception e) {
+            logger.error("Error decoding registration event: {}", record.value(), e);
+            return;
+        }
+
+        trendingProcessor.processRegistration(record, event);
+        capacityProcessor.monitorCapacity(record, event);
+        analyticsProcessor.processRegistration(record, event);
+    }
+
+    // Resume from the oldest processor checkpoint; processors already past it skip the replay
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        List<CheckpointedProcessor<?>> processors = List.of(trendingProcessor, capacityProcessor, analyticsProcessor);
+        assignments.keySet().forEach(partition -> processors.stream()
+            .map(processor -> processor.nextOffset(partition.topic(), partition.partition()))
+            .filter(Objects::nonNull)
+            .min(Long::compare)
+            .ifPresent(next -> callback.seek(partition.topic(), partition.partition(), next)));
+    }
+}
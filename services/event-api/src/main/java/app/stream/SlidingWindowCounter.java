@@ -0,0 +1,67 @@
+package app.stream;
+
+import java.util.Arrays;
+
+// Fixed ring of per-bucket counters covering the last windowSeconds; add and expire are O(1)
+// and memory is constant no matter how many registrations arrive.
+public class SlidingWindowCounter {
+
+    private int bucketSeconds;
+    private int[] counts;
+    private long headBucket = Long.MIN_VALUE;
+    private int total;
+
+    // For restoring from a state store snapshot
+    private SlidingWindowCounter() {}
+
+    public SlidingWindowCounter(int windowSeconds, int bucketSeconds) {
+        if (bucketSeconds <= 0 || windowSeconds < bucketSeconds || windowSeconds % bucketSeconds != 0) {
+            throw new IllegalArgumentException("windowSeconds must be a positive multiple of bucketSeconds");
+        }
+        this.bucketSeconds = bucketSeconds;
+        this.counts = new int[windowSeconds / bucketSeconds];
+    }
+
+    public synchronized void increment(long epochSecond) {
+        long bucket = Math.floorDiv(epochSecond, bucketSeconds);
+        advance(bucket);
+
+        // Late arrivals still count if their bucket is inside the window
+        if (bucket <= headBucket - counts.length) {
+            return;
+        }
+        counts[slot(bucket)]++;
+        total++;
+    }
+
+    public synchronized int count(long epochSecond) {
+        advance(Math.floorDiv(epochSecond, bucketSeconds));
+        return total;
+    }
+
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    private void advance(long bucket) {
+        if (bucket <= headBucket) {
+            return;
+        }
+        if (headBucket == Long.MIN_VALUE || bucket - headBucket >= counts.length) {
+            Arrays.fill(counts, 0);
+            total = 0;
+        } else {
+            // At most counts.length slots are cleared, however long the gap
+            for (long expired = headBucket + 1; expired <= bucket; expired++) {
+                int slot = slot(expired);
+                total -= counts[slot];
+                counts[slot] = 0;
+            }
+        }
+        headBucket = bucket;
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) counts.length);
+    }
+}
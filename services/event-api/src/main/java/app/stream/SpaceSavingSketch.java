@@ -0,0 +1,78 @@
+package app.stream;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Space-Saving heavy-hitters summary: tracks at most `capacity` keys, and any key whose true
+// count exceeds total/capacity is guaranteed to be present. Estimates never undercount.
+public class SpaceSavingSketch {
+
+    private int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    // Derived from counters and not persisted; rebuilt after a restore
+    private final transient TreeSet<Counter> byCount = new TreeSet<>((a, b) -> {
+        int order = Long.compare(a.count, b.count);
+        return order != 0 ? order : a.key.compareTo(b.key);
+    });
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    // For restoring from a state store snapshot
+    private SpaceSavingSketch() {}
+
+    public void increment(String key) {
+        if (byCount.size() != counters.size()) {
+            byCount.clear();
+            byCount.addAll(counters.values());
+        }
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(key, 0);
+            } else {
+                // Replace the smallest counter and inherit its count as the overestimate bound
+                Counter smallest = byCount.pollFirst();
+                counters.remove(smallest.key);
+                counter = new Counter(key, smallest.count);
+            }
+            counters.put(key, counter);
+        } else {
+            byCount.remove(counter);
+        }
+        counter.count++;
+        byCount.add(counter);
+    }
+
+    public void addEstimatesTo(Map<String, Long> totals) {
+        for (Counter counter : counters.values()) {
+            totals.merge(counter.key, counter.count, Long::sum);
+        }
+    }
+
+    public void clear() {
+        counters.clear();
+        byCount.clear();
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    private static class Counter {
+        private String key;
+        private long count;
+
+        private Counter() {}
+
+        Counter(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+}
@@ -1,102 +1,104 @@
 package app.stream;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import app.events.UserRegisteredForEventEvent;
+import app.stream.state.LocalStateStore;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.time.OffsetDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.Instant;
 
 @Component
-public class TrendingEventsProcessor {
+public class TrendingEventsProcessor extends CheckpointedProcessor<TrendingEventsProcessor.TrendingState> {
     private static final Logger logger = LoggerFactory.getLogger(TrendingEventsProcessor.class);
     private static final int TRENDING_THRESHOLD = 3; // registrations in window
     private static final int WINDOW_MINUTES = 5;
+    private static final int BUCKET_SECONDS = 10;
+    private static final int TOP_K_BUCKET_SECONDS = 60;
+    private static final int TOP_K_CAPACITY = 256; // tracked events per bucket sketch
+    public static final int MAX_K = 100;
 
-    private final ObjectMapper objectMapper;
-
-    // In-memory store for windowed counts (in production, use Kafka Streams with state stores)
-    private final Map<String, EventWindow> eventWindows = new ConcurrentHashMap<>();
-
-    public TrendingEventsProcessor() {
-        this.objectMapper = new ObjectMapper();
+    public TrendingEventsProcessor(@Value("${event.state.dir:state/event-api}") String stateDir) {
+        super(new LocalStateStore<>(Path.of(stateDir), "trending-events", TrendingState.class, TrendingState::new));
     }
 
-    @KafkaListener(topics = "user-registered-event", groupId = "trending-processor-group")
-    public void processRegistration(String message) {
+    // Fed by RegistrationEventDispatcher, which decodes each record once for all processors
+    public void processRegistration(ConsumerRecord<?, ?> record, UserRegisteredForEventEvent event) {
         try {
-            JsonNode event = objectMapper.readTree(message);
+            String eventId = event.getEventId();
+            String eventTitle = event.getEventTitle();
 
-            String eventId = event.get("eventId").asText();
-            String eventTitle = event.get("eventTitle").asText();
-            OffsetDateTime timestamp = OffsetDateTime.now();
+            // Window on the record timestamp so a replay after restore lands in the same buckets
+            long registeredAt = record.timestamp() / 1000;
 
-            // Get or create event window
-            EventWindow window = eventWindows.computeIfAbsent(
-                eventId,
-                id -> new EventWindow(id, eventTitle)
-            );
+            store.apply(record, state -> trackRegistration(state, eventId, eventTitle, registeredAt));
 
-            // Clean old registrations outside window
-            window.removeOldRegistrations(WINDOW_MINUTES);
+        } catch (Exception e) {
+            logger.error("Error processing registration for trending analysis: {}", event, e);
+        }
+    }
 
-            // Add new registration
-            window.addRegistration(timestamp);
+    private void trackRegistration(TrendingState state, String eventId, String eventTitle, long registeredAt) {
+        // Buckets older than the window expire as the ring advances
+        EventWindow window = state.eventWindows.computeIfAbsent(eventId, id -> new EventWindow(id, eventTitle));
+        window.addRegistration(registeredAt);
+        state.topEvents.increment(eventId, registeredAt);
 
-            int count = window.getCount();
-            logger.info("Trending Analysis - Event: {} has {} registrations in last {} minutes",
+        int count = window.getCount(registeredAt);
+        logger.info("Trending Analysis - Event: {} has {} registrations in last {} minutes",
+            eventTitle, count, WINDOW_MINUTES);
+
+        // Detect trending events
+        if (count >= TRENDING_THRESHOLD && !window.isTrending()) {
+            window.setTrending(true);
+            logger.warn("TRENDING EVENT DETECTED: '{}' with {} registrations in {} minutes!",
                 eventTitle, count, WINDOW_MINUTES);
 
-            // Detect trending events
-            if (count >= TRENDING_THRESHOLD && !window.isTrending()) {
-                window.setTrending(true);
-                logger.warn("TRENDING EVENT DETECTED: '{}' with {} registrations in {} minutes!",
-                    eventTitle, count, WINDOW_MINUTES);
+            // In production: publish TrendingEventDetectedEvent to Kafka
+            // kafkaTemplate.send("trending-events", eventId, new TrendingEventDetectedEvent(...));
+        } else if (count < TRENDING_THRESHOLD && window.isTrending()) {
+            window.setTrending(false);
+            logger.info("Event '{}' is no longer trending", eventTitle);
+        }
+    }
 
-                // In production: publish TrendingEventDetectedEvent to Kafka
-                // kafkaTemplate.send("trending-events", eventId, new TrendingEventDetectedEvent(...));
-            } else if (count < TRENDING_THRESHOLD && window.isTrending()) {
-                window.setTrending(false);
-                logger.info("Event '{}' is no longer trending", eventTitle);
-            }
+    // Everything the processor knows, persisted as one snapshot
+    static class TrendingState {
+        private Map<String, EventWindow> eventWindows = new HashMap<>();
 
-        } catch (Exception e) {
-            logger.error("Error processing registration for trending analysis: {}", message, e);
-        }
+        // Heavy-hitters ranking over the same window, bounded no matter how many events exist
+        private WindowedTopK topEvents =
+            new WindowedTopK(WINDOW_MINUTES * 60, TOP_K_BUCKET_SECONDS, TOP_K_CAPACITY);
     }
 
     private static class EventWindow {
-        private final String eventId;
-        private final String eventTitle;
-        private final ConcurrentHashMap<String, OffsetDateTime> registrations = new ConcurrentHashMap<>();
-        private final AtomicInteger count = new AtomicInteger(0);
-        private volatile boolean trending = false;
+        private String eventId;
+        private String eventTitle;
+        private SlidingWindowCounter registrations =
+            new SlidingWindowCounter(WINDOW_MINUTES * 60, BUCKET_SECONDS);
+        private boolean trending = false;
+
+        private EventWindow() {}
 
         public EventWindow(String eventId, String eventTitle) {
             this.eventId = eventId;
             this.eventTitle = eventTitle;
         }
 
-        public void addRegistration(OffsetDateTime timestamp) {
-            String key = timestamp.toString();
-            registrations.put(key, timestamp);
-            count.incrementAndGet();
-        }
-
-        public void removeOldRegistrations(int windowMinutes) {
-            OffsetDateTime cutoff = OffsetDateTime.now().minus(windowMinutes, ChronoUnit.MINUTES);
-            registrations.entrySet().removeIf(entry -> entry.getValue().isBefore(cutoff));
-            count.set(registrations.size());
+        public void addRegistration(long epochSecond) {
+            registrations.increment(epochSecond);
         }
 
-        public int getCount() {
-            return count.get();
+        public int getCount(long epochSecond) {
+            return registrations.count(epochSecond);
         }
 
         public boolean isTrending() {
@@ -108,13 +110,28 @@ public class TrendingEventsProcessor {
         }
     }
 
-    public Map<String, Integer> getTrendingEvents() {
-        Map<String, Integer> trending = new ConcurrentHashMap<>();
-        eventWindows.forEach((eventId, window) -> {
-            if (window.isTrending()) {
-                trending.put(eventId, window.getCount());
-            }
-        });
-        return trending;
+    // Ranked hottest events over the window, with registrations per minute
+    public List<Map<String, Object>> getTopTrendingEvents(int k) {
+        long now = Instant.now().getEpochSecond();
+        return store.query(state -> state.topEvents.top(Math.min(k, MAX_K), now)).stream()
+            .map(entry -> {
+                Map<String, Object> ranked = new LinkedHashMap<>();
+                ranked.put("eventId", entry.getKey());
+                ranked.put("registrations", entry.getValue());
+                ranked.put("registrationsPerMinute", entry.getValue() / (double) WINDOW_MINUTES);
+                return ranked;
+            })
+            .toList();
+    }
+
+    public int getWindowMinutes() {
+        return WINDOW_MINUTES;
+    }
+
+    // Drop windows with nothing left in them so memory tracks active events only
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleWindows() {
+        long now = Instant.now().getEpochSecond();
+        store.update(state -> state.eventWindows.values().removeIf(window -> window.getCount(now) == 0));
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package app.stream;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ring of Space-Saving sketches, one per bucket, merged at query time to rank keys over the
+// sliding window. Memory is buckets * capacity entries regardless of how many keys exist.
+public class WindowedTopK {
+
+    private int bucketSeconds;
+    private SpaceSavingSketch[] sketches;
+    private long[] sketchBuckets;
+
+    // For restoring from a state store snapshot
+    private WindowedTopK() {}
+
+    public WindowedTopK(int windowSeconds, int bucketSeconds, int capacity) {
+        if (bucketSeconds <= 0 || windowSeconds < bucketSeconds || windowSeconds % bucketSeconds != 0) {
+            throw new IllegalArgumentException("windowSeconds must be a positive multiple of bucketSeconds");
+        }
+        this.bucketSeconds = bucketSeconds;
+        this.sketches = new SpaceSavingSketch[windowSeconds / bucketSeconds];
+        this.sketchBuckets = new long[sketches.length];
+        for (int i = 0; i < sketches.length; i++) {
+            sketches[i] = new SpaceSavingSketch(capacity);
+            sketchBuckets[i] = Long.MIN_VALUE;
+        }
+    }
+
+    public synchronized void increment(String key, long epochSecond) {
+        long bucket = Math.floorDiv(epochSecond, bucketSeconds);
+        int slot = (int) Math.floorMod(bucket, (long) sketches.length);
+        if (sketchBuckets[slot] != bucket) {
+            if (sketchBuckets[slot] > bucket) {
+                return;
+            }
+            sketches[slot].clear();
+            sketchBuckets[slot] = bucket;
+        }
+        sketches[slot].increment(key);
+    }
+
+    public synchronized List<Map.Entry<String, Long>> top(int k, long epochSecond) {
+        long newest = Math.floorDiv(epochSecond, bucketSeconds);
+        Map<String, Long> totals = new HashMap<>();
+        for (int i = 0; i < sketches.length; i++) {
+            if (sketchBuckets[i] > newest - sketches.length && sketchBuckets[i] <= newest) {
+                sketches[i].addEstimatesTo(totals);
+            }
+        }
+
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>(totals.entrySet());
+        ranked.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()));
+        return ranked.subList(0, Math.min(k, ranked.size()));
+    }
+}
@@ -0,0 +1,144 @@
+package app.stream.state;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.JacksonUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Processor state held in memory and snapshotted to a local file together with the offset of the
+// last record applied per partition. On restart the snapshot is loaded and consumers seek to the
+// checkpointed offsets, so only records after the snapshot are replayed.
+public class LocalStateStore<S> {
+    private static final Logger logger = LoggerFactory.getLogger(LocalStateStore.class);
+
+    private final String name;
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final JavaType snapshotType;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private S state;
+    private Map<String, Long> offsets;
+
+    public LocalStateStore(Path directory, String name, Class<S> stateType, Supplier<S> emptyState) {
+        this.name = name;
+        this.file = directory.resolve(name + ".json");
+        this.objectMapper = JacksonUtils.enhancedObjectMapper()
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY);
+        this.snapshotType = objectMapper.getTypeFactory().constructParametricType(Snapshot.class, stateType);
+        restore(emptyState);
+    }
+
+    // Applies a record's effect and advances that partition's checkpoint in one step. Records
+    // before the checkpoint are already in the state and are skipped, so redelivery is harmless.
+    public boolean apply(ConsumerRecord<?, ?> record, Consumer<S> update) {
+        String partition = partitionKey(record.topic(), record.partition());
+        lock.lock();
+        try {
+            Long next = offsets.get(partition);
+            if (next != null && record.offset() < next) {
+                return false;
+            }
+            update.accept(state);
+            offsets.put(partition, record.offset() + 1);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void update(Consumer<S> update) {
+        lock.lock();
+        try {
+            update.accept(state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <R> R query(Function<S, R> reader) {
+        lock.lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Long nextOffset(String topic, int partition) {
+        lock.lock();
+        try {
+            return offsets.get(partitionKey(topic, partition));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void snapshot() throws IOException {
+        byte[] bytes;
+        lock.lock();
+        try {
+            bytes = objectMapper.writeValueAsBytes(new Snapshot<>(state, offsets));
+        } finally {
+            lock.unlock();
+        }
+
+        // Write beside the live file and rename so a crash mid-write never leaves a torn snapshot
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, bytes);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void restore(Supplier<S> emptyState) {
+        state = emptyState.get();
+        offsets = new HashMap<>();
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            Snapshot<S> snapshot = objectMapper.readValue(file.toFile(), snapshotType);
+            if (snapshot.state != null) {
+                state = snapshot.state;
+            }
+            if (snapshot.offsets != null) {
+                offsets = new HashMap<>(snapshot.offsets);
+            }
+            logger.info("Restored state store '{}' from {} ({} partitions checkpointed)", name, file, offsets.size());
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable snapshot for state store '{}' at {}", name, file, e);
+        }
+    }
+
+    private static String partitionKey(String topic, int partition) {
+        return topic + "-" + partition;
+    }
+
+    static class Snapshot<S> {
+        private S state;
+        private Map<String, Long> offsets;
+
+        private Snapshot() {}
+
+        Snapshot(S state, Map<String, Long> offsets) {
+            this.state = state;
+            this.offsets = offsets;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package app.controller;
 
 import app.model.EventDto;
+import app.model.RegistrationResult;
 import app.repository.EventRepository;
 import app.publisher.EventEventPublisher;
 import app.service.EventService;
@@ -72,6 +73,17 @@ class EventControllerTest {
         verify(eventService).getEvent("1");
     }
 
+    @Test
+    void searchEvents_ReturnsRankedEvents() throws Exception {
+        when(eventService.searchEvents("test", null)).thenReturn(Arrays.asList(testEvent));
+
+        mockMvc.perform(get("/api/v1/events/search").param("q", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Test Event"));
+
+        verify(eventService).searchEvents("test", null);
+    }
+
     @Test
     void createEvent_WithValidData_CreatesEvent() throws Exception {
         when(eventService.createEvent(anyString(), any(EventDto.class))).thenReturn("1");
@@ -85,19 +97,100 @@ class EventControllerTest {
         verify(eventService, atLeastOnce()).createEvent(anyString(), any(EventDto.class));
     }
 
+    @Test
+    void createEvent_RetriedWithSameIdempotencyKey_ReplaysFirstResponse() throws Exception {
+        when(eventService.createEvent(anyString(), any(EventDto.class))).thenReturn("1", "2");
+        String body = "{\"title\":\"Test Event\",\"startTime\":\"2025-11-01T10:00:00Z\",\"endTime\":\"2025-11-01T12:00:00Z\",\"maxParticipants\":100}";
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/v1/events")
+                    .header("Authorization", "1")
+                    .header(IdempotencyFilter.HEADER, "create-retry")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().string("1"));
+        }
+        mockMvc.perform(post("/api/v1/events")
+                .header("Authorization", "1")
+                .header(IdempotencyFilter.HEADER, "create-retry")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+
+        verify(eventService, times(1)).createEvent(anyString(), any(EventDto.class));
+    }
+
+    @Test
+    void createEvent_WithIdempotencyKeyReusedForDifferentBody_IsRejected() throws Exception {
+        when(eventService.createEvent(anyString(), any(EventDto.class))).thenReturn("1");
+
+        mockMvc.perform(post("/api/v1/events")
+                .header("Authorization", "1")
+                .header(IdempotencyFilter.HEADER, "create-reused")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"First\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/events")
+                .header("Authorization", "1")
+                .header(IdempotencyFilter.HEADER, "create-reused")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Second\"}"))
+                .andExpect(status().isUnprocessableEntity());
+        // Keys are per caller, so another user may use the same one
+        mockMvc.perform(post("/api/v1/events")
+                .header("Authorization", "2")
+                .header(IdempotencyFilter.HEADER, "create-reused")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Second\"}"))
+                .andExpect(status().isCreated());
+
+        verify(eventService, times(2)).createEvent(anyString(), any(EventDto.class));
+    }
+
+    @Test
+    void deleteEvent_AfterServerError_CanBeRetriedWithSameIdempotencyKey() throws Exception {
+        doThrow(new app.exception.ServiceException("Database unavailable", org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR))
+                .doNothing()
+                .when(eventService).deleteEvent("1", "1");
+
+        mockMvc.perform(delete("/api/v1/events/1")
+                .header("Authorization", "1")
+                .header(IdempotencyFilter.HEADER, "delete-retry"))
+                .andExpect(status().isInternalServerError());
+        mockMvc.perform(delete("/api/v1/events/1")
+                .header("Authorization", "1")
+                .header(IdempotencyFilter.HEADER, "delete-retry"))
+                .andExpect(status().is2xxSuccessful());
+
+        verify(eventService, times(2)).deleteEvent("1", "1");
+    }
+
     @Test
     void registerForEvent_WithAvailableCapacity_RegistersUser() throws Exception {
-        doNothing().when(eventService).registerForEvent("2", "1");
+        when(eventService.registerForEvent("2", "1")).thenReturn(RegistrationResult.registered());
 
         mockMvc.perform(post("/api/v1/events/1/register")
                 .header("Authorization", "2"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REGISTERED"));
 
         verify(eventService).registerForEvent("2", "1");
     }
 
     @Test
-    void registerForEvent_WhenFull_ReturnsBadRequest() throws Exception {
+    void registerForEvent_WhenFull_ReturnsAcceptedWithWaitlistPosition() throws Exception {
+        when(eventService.registerForEvent("2", "1")).thenReturn(RegistrationResult.waitlisted(3));
+
+        mockMvc.perform(post("/api/v1/events/1/register")
+                .header("Authorization", "2"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("WAITLISTED"))
+                .andExpect(jsonPath("$.position").value(3));
+    }
+
+    @Test
+    void registerForEvent_WhenRejected_ReturnsBadRequest() throws Exception {
         doThrow(new app.exception.ServiceException("Event is full", org.springframework.http.HttpStatus.BAD_REQUEST))
                 .when(eventService).registerForEvent("2", "1");
 
@@ -108,6 +201,31 @@ class EventControllerTest {
         verify(eventService).registerForEvent("2", "1");
     }
 
+    @Test
+    void registerUsersForEvent_RegistersGroup() throws Exception {
+        when(eventService.registerUsersForEvent("1", "1", Arrays.asList("2", "3"))).thenReturn(2);
+
+        mockMvc.perform(post("/api/v1/events/1/register/bulk")
+                .header("Authorization", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"2\",\"3\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.registered").value(2));
+    }
+
+    @Test
+    void registerUsersForEvent_ByCallerOutsideGroup_ReturnsForbidden() throws Exception {
+        when(eventService.registerUsersForEvent("5", "1", Arrays.asList("2", "3")))
+                .thenThrow(new app.exception.ServiceException("Not your group", org.springframework.http.HttpStatus.FORBIDDEN));
+
+        mockMvc.perform(post("/api/v1/events/1/register/bulk")
+                .header("Authorization", "5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"2\",\"3\"]"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.error").value("Not your group"));
+    }
+
     @Test
     void unregisterFromEvent_WithRegisteredUser_UnregistersUser() throws Exception {
         doNothing().when(eventService).deregisterFromEvent("2", "1");
@@ -0,0 +1,54 @@
+package app.controller;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private final IdempotencyFilter filter = new IdempotencyFilter(60, 100);
+
+    @Test
+    void doFilter_LetsTheControllerReadTheBodyWithAReadListener() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/events");
+        request.addHeader("Authorization", "1");
+        request.addHeader(IdempotencyFilter.HEADER, "async-read");
+        request.setContent("{\"title\":\"Async\"}".getBytes(StandardCharsets.UTF_8));
+        List<String> calls = new ArrayList<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream input = req.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    calls.add("data");
+                    while (input.isReady() && !input.isFinished()) {
+                        body.write(input.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    calls.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    calls.add("error");
+                }
+            });
+        });
+
+        assertEquals(List.of("data", "done"), calls);
+        assertEquals("{\"title\":\"Async\"}", body.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,103 @@
+package app.publisher;
+
+import app.model.EventDto;
+import app.repository.EventRepository;
+import app.repository.OutboxRepository;
+import app.service.EventService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+    "event.state.dir=target/test-state",
+    "event.outbox.relay-interval-ms=3600000"
+})
+@EmbeddedKafka(partitions = 1, topics = {"event-created", "user-registered-event", "event-capacity-reached"})
+class OutboxRelayTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Test
+    void createEvent_IsQueuedThenRelayedToKafka() throws Exception {
+        EventDto event = new EventDto();
+        event.setTitle("Outbox Event");
+        event.setLocation("Room 1");
+        event.setStartTime(OffsetDateTime.now().plusDays(1));
+        event.setEndTime(OffsetDateTime.now().plusDays(1).plusHours(2));
+        event.setMaxParticipants(10);
+
+        String eventId = eventService.createEvent("1", event);
+        assertEquals(1, outboxRepository.count());
+
+        assertEquals(1, outboxRelay.drainBatch());
+        assertEquals(0, outboxRepository.count());
+
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-test", "true", embeddedKafka);
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, "event-created");
+            ConsumerRecord<String, String> record = KafkaTestUtils.getSingleRecord(consumer, "event-created");
+
+            JsonNode payload = new ObjectMapper().readTree(record.value());
+            assertEquals(eventId, record.key());
+            assertEquals(eventId, payload.get("eventId").asText());
+            assertEquals("Outbox Event", payload.get("title").asText());
+        }
+    }
+
+    @Test
+    void registerUsersForEvent_QueuesOneRowRelayedAsOneRecordPerUser() throws Exception {
+        // Saved directly so nothing else is queued on event-created
+        String eventId = eventRepository.save(new EventDto("group", "Group Event", null, null,
+            OffsetDateTime.now().plusDays(1), OffsetDateTime.now().plusDays(1).plusHours(2), "1", 10, 0)).getId();
+
+        eventService.registerUsersForEvent("1", eventId, List.of("7", "8", "9"));
+        assertEquals(1, outboxRepository.count());
+
+        assertEquals(1, outboxRelay.drainBatch());
+        assertEquals(0, outboxRepository.count());
+
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-bulk-test", "true", embeddedKafka);
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, "user-registered-event");
+            List<JsonNode> registrations = new ArrayList<>();
+            for (ConsumerRecord<String, String> record : KafkaTestUtils.getRecords(consumer)) {
+                assertEquals(eventId, record.key());
+                registrations.add(new ObjectMapper().readTree(record.value()));
+            }
+
+            assertEquals(List.of("7", "8", "9"), registrations.stream().map(r -> r.get("userId").asText()).toList());
+            assertEquals(List.of(1, 2, 3), registrations.stream().map(r -> r.get("currentParticipants").asInt()).toList());
+        }
+    }
+}
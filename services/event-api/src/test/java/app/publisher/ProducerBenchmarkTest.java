@@ -0,0 +1,114 @@
+package app.publisher;
+
+import app.events.UserRegisteredForEventEvent;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Producer throughput against an embedded broker with client defaults (no linger, 16KB batches, no
+// compression) and with the producer profile from application.yml (10ms linger, 64KB batches, lz4).
+// Both send MESSAGES registration events without waiting per record, the way the relay and publishers
+// do, and count acks in the completion callback. A single local broker has almost no network cost, so
+// the byte savings carry over to a real cluster better than the throughput gap does. Only runs with -Pbenchmark.
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 3, topics = {"producer-benchmark"})
+class ProducerBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(ProducerBenchmarkTest.class);
+
+    private static final int MESSAGES = 50_000;
+    private static final int EVENTS = 200;
+
+    @Test
+    void producerProfile_SendsFewerBytesInFewerRequestsThanDefaults(EmbeddedKafkaBroker broker) throws Exception {
+        Map<String, Object> defaults = Map.of(
+            ProducerConfig.LINGER_MS_CONFIG, 0,
+            ProducerConfig.BATCH_SIZE_CONFIG, 16 * 1024,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "none");
+        Map<String, Object> profile = Map.of(
+            ProducerConfig.LINGER_MS_CONFIG, 10,
+            ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+
+        // Warm up serialisation and the broker before timing
+        send(broker, defaults, 5_000);
+        send(broker, profile, 5_000);
+
+        Result before = send(broker, defaults, MESSAGES);
+        Result after = send(broker, profile, MESSAGES);
+
+        logger.info("{} records: defaults {}/s, {} bytes/record, {} records/request; "
+                + "profile {}/s, {} bytes/record, {} records/request",
+            MESSAGES, Math.round(before.perSecond()), Math.round(before.bytesPerRecord()), Math.round(before.recordsPerRequest()),
+            Math.round(after.perSecond()), Math.round(after.bytesPerRecord()), Math.round(after.recordsPerRequest()));
+        assertTrue(after.bytesPerRecord() < before.bytesPerRecord(),
+            "profile " + after.bytesPerRecord() + " vs defaults " + before.bytesPerRecord() + " bytes/record");
+        assertTrue(after.recordsPerRequest() > before.recordsPerRequest(),
+            "profile " + after.recordsPerRequest() + " vs defaults " + before.recordsPerRequest() + " records/request");
+    }
+
+    private static Result send(EmbeddedKafkaBroker broker, Map<String, Object> overrides, int count) throws Exception {
+        Map<String, Object> props = new HashMap<>(overrides);
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(props,
+            new StringSerializer(), new JsonSerializer<>());
+        try {
+            KafkaTemplate<String, Object> kafkaTemplate = new KafkaTemplate<>(factory);
+            CountDownLatch acked = new CountDownLatch(count);
+            AtomicInteger failed = new AtomicInteger();
+            OffsetDateTime now = OffsetDateTime.now();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                String eventId = "event-" + (i % EVENTS);
+                kafkaTemplate.send("producer-benchmark", eventId,
+                        new UserRegisteredForEventEvent(String.valueOf(i), eventId, "Benchmark Event " + (i % EVENTS),
+                            i % 100, 100, now))
+                    .whenComplete((result, e) -> {
+                        if (e != null) {
+                            failed.incrementAndGet();
+                        }
+                        acked.countDown();
+                    });
+            }
+            assertTrue(acked.await(60, TimeUnit.SECONDS), "sends did not complete");
+            double perSecond = count / ((System.nanoTime() - start) / 1e9);
+            assertEquals(0, failed.get());
+
+            Map<MetricName, ? extends Metric> metrics = kafkaTemplate.metrics();
+            return new Result(perSecond, metric(metrics, "outgoing-byte-total") / count,
+                metric(metrics, "records-per-request-avg"));
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static double metric(Map<MetricName, ? extends Metric> metrics, String name) {
+        return metrics.entrySet().stream()
+            .filter(entry -> entry.getKey().group().equals("producer-metrics") && entry.getKey().name().equals(name))
+            .mapToDouble(entry -> ((Number) entry.getValue().metricValue()).doubleValue())
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private record Result(double perSecond, double bytesPerRecord, double recordsPerRequest) {}
+}
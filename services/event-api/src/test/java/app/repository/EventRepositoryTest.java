@@ -0,0 +1,62 @@
+package app.repository;
+
+import app.model.EventDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class EventRepositoryTest {
+
+    private static final OffsetDateTime BASE = OffsetDateTime.of(2025, 11, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository.save(event("a", "Room 1", BASE, 10, 0));
+        eventRepository.save(event("b", "Room 2", BASE, 10, 10));
+        eventRepository.save(event("c", "Room 1", BASE.plusHours(1), 10, 3));
+        eventRepository.save(event("d", "Room 2", BASE.plusHours(2), 10, 0));
+    }
+
+    @Test
+    void findPage_OrdersByStartTimeThenId() {
+        List<EventDto> page = eventRepository.findPage(null, null, null, null, null, false, PageRequest.of(0, 10));
+
+        assertEquals(List.of("a", "b", "c", "d"), page.stream().map(EventDto::getId).toList());
+    }
+
+    @Test
+    void findPage_ResumesAfterKeyWithSameStartTime() {
+        List<EventDto> page = eventRepository.findPage(BASE, "a", null, null, null, false, PageRequest.of(0, 2));
+
+        assertEquals(List.of("b", "c"), page.stream().map(EventDto::getId).toList());
+    }
+
+    @Test
+    void findPage_AppliesFilters() {
+        List<EventDto> freeInRoom2 = eventRepository.findPage(null, null, null, null, "Room 2", true, PageRequest.of(0, 10));
+        List<EventDto> inRange = eventRepository.findPage(null, null, BASE.plusMinutes(30), BASE.plusHours(2), null, false, PageRequest.of(0, 10));
+
+        assertEquals(List.of("d"), freeInRoom2.stream().map(EventDto::getId).toList());
+        assertEquals(List.of("c"), inRange.stream().map(EventDto::getId).toList());
+    }
+
+    @Test
+    void incrementParticipantsIfAvailable_StopsAtCapacity() {
+        assertEquals(1, eventRepository.incrementParticipantsIfAvailable("a"));
+        assertEquals(0, eventRepository.incrementParticipantsIfAvailable("b"));
+    }
+
+    private EventDto event(String id, String location, OffsetDateTime start, int max, int current) {
+        return new EventDto(id, "Event " + id, "Description", location, start, start.plusHours(1), "1", max, current);
+    }
+}
@@ -0,0 +1,105 @@
+package app.service;
+
+import app.model.EventDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new EventCache(meterRegistry, 60, 100);
+    }
+
+    @Test
+    void getEvent_LoadsOnceThenServesFromCache() {
+        cache.getEvent("1", () -> load("1", "Meetup"));
+        EventDto cached = cache.getEvent("1", () -> load("1", "Meetup")).orElseThrow();
+
+        assertEquals("Meetup", cached.getTitle());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", EventCache.EVENTS_CACHE).tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(1, meterRegistry.get("event.cache.load").tag("cache", EventCache.EVENTS_CACHE).timer().count());
+    }
+
+    @Test
+    void getEvent_ReturnsCopiesSoCallersCannotChangeTheCache() {
+        cache.getEvent("1", () -> load("1", "Meetup"));
+        cache.getEvent("1", () -> load("1", "Meetup")).orElseThrow().setUserIds(List.of("7"));
+
+        assertNull(cache.getEvent("1", () -> load("1", "Meetup")).orElseThrow().getUserIds());
+    }
+
+    @Test
+    void getEvent_DoesNotCacheMissingEvents() {
+        assertTrue(cache.getEvent("404", Optional::empty).isEmpty());
+
+        assertEquals("Found", cache.getEvent("404", () -> load("404", "Found")).orElseThrow().getTitle());
+    }
+
+    @Test
+    void invalidate_ReloadsEventAndFullList() {
+        cache.getEvent("1", () -> load("1", "Meetup"));
+        cache.getAllEvents(() -> List.of(load("1", "Meetup").orElseThrow()));
+
+        cache.invalidate("1");
+
+        assertEquals("Renamed", cache.getEvent("1", () -> load("1", "Renamed")).orElseThrow().getTitle());
+        assertEquals("Renamed", cache.getAllEvents(() -> List.of(load("1", "Renamed").orElseThrow())).get(0).getTitle());
+    }
+
+    @Test
+    void getEvent_LoadThatRacedAnInvalidationIsNotCached() {
+        // The loader reads the old row, then a write invalidates before the load completes
+        cache.getEvent("1", () -> {
+            Optional<EventDto> stale = load("1", "Before update");
+            cache.invalidate("1");
+            return stale;
+        });
+
+        assertEquals("After update", cache.getEvent("1", () -> load("1", "After update")).orElseThrow().getTitle());
+    }
+
+    @Test
+    void onEventChanged_InvalidatesThatEvent() {
+        cache.getEvent("1", () -> load("1", "Meetup"));
+        cache.getEvent("2", () -> load("2", "Workshop"));
+
+        cache.onEventChanged("{\"eventId\":\"1\",\"changeType\":\"UPDATED\",\"timestamp\":\"2026-01-01T10:00:00Z\"}");
+        cache.getEvent("1", () -> load("1", "Meetup"));
+        cache.getEvent("2", () -> load("2", "Workshop"));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void invalidateAllEvents_KeepsSingleEvents() {
+        cache.getEvent("1", () -> load("1", "Meetup"));
+        cache.getAllEvents(() -> List.of(load("1", "Meetup").orElseThrow()));
+
+        cache.invalidateAllEvents();
+        cache.getEvent("1", () -> load("1", "Meetup"));
+        List<EventDto> all = cache.getAllEvents(() -> List.of(load("1", "Meetup").orElseThrow(), load("2", "New").orElseThrow()));
+
+        assertEquals(2, all.size());
+        assertEquals(4, loads.get());
+    }
+
+    private Optional<EventDto> load(String eventId, String title) {
+        loads.incrementAndGet();
+        return Optional.of(new EventDto(eventId, title, "description", "Room 1",
+            OffsetDateTime.parse("2026-01-01T10:00:00Z"), OffsetDateTime.parse("2026-01-01T12:00:00Z"), "1", 10, 0));
+    }
+}
@@ -0,0 +1,100 @@
+package app.service;
+
+import app.model.EventDto;
+import app.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventSearchIndexTest {
+
+    private EventRepository eventRepository;
+    private EventSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        index = new EventSearchIndex(eventRepository);
+        index.index("1", "Jazz Night", "Live jazz and blues from local bands", "Melbourne Recital Centre");
+        index.index("2", "Blues Workshop", "Learn jazz guitar basics", "Sydney Town Hall");
+        index.index("3", "Startup Pitch Night", "Founders pitch to investors", "Melbourne Convention Centre");
+    }
+
+    @Test
+    void search_RanksTitleMatchesAboveDescriptionMatches() {
+        assertEquals(List.of("1", "2"), index.search("jazz", 10));
+        assertEquals(List.of("2", "1"), index.search("blues", 10));
+    }
+
+    @Test
+    void search_RanksDocumentsMatchingMoreTermsFirst() {
+        assertEquals(List.of("3", "1"), index.search("night melbourne pitch", 10).subList(0, 2));
+    }
+
+    @Test
+    void search_MatchesLastTermAsPrefix() {
+        assertEquals(List.of("1", "3"), index.search("melb", 10));
+        assertEquals(List.of("3"), index.search("startup pi", 10));
+        // Earlier terms must match whole words
+        assertTrue(index.search("melb night", 10).containsAll(List.of("1", "3")));
+        assertTrue(index.search("jaz zzz", 10).isEmpty());
+    }
+
+    @Test
+    void search_IgnoresCaseAccentsPunctuationAndStopWords() {
+        index.index("4", "Café Crawl", "Coffee, cake & conversation", "Fitzroy");
+
+        assertEquals(List.of("4"), index.search("CAFE", 10));
+        assertEquals(List.of("4"), index.search("cake!", 10));
+        assertTrue(index.search("the and of", 10).isEmpty());
+    }
+
+    @Test
+    void search_ReturnsAtMostLimitResults() {
+        assertEquals(List.of("1"), index.search("jazz", 1));
+    }
+
+    @Test
+    void index_ReplacesPreviousTermsForTheSameEvent() {
+        index.index("1", "Poetry Slam", "Open mic", "Brunswick");
+
+        assertEquals(List.of("2"), index.search("jazz", 10));
+        assertEquals(List.of("1"), index.search("poetry", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void onEventChanged_AppliesCreatesUpdatesAndDeletes() {
+        index.onEventChanged("{\"eventId\":\"4\",\"title\":\"Rust Meetup\",\"description\":null,\"location\":\"Online\"}");
+        assertEquals(List.of("4"), index.search("rust", 10));
+
+        when(eventRepository.findById("4")).thenReturn(Optional.of(event("4", "Go Meetup", "Online")));
+        index.onEventChanged("{\"eventId\":\"4\",\"changeType\":\"UPDATED\",\"timestamp\":\"2026-01-01T10:00:00Z\"}");
+        assertTrue(index.search("rust", 10).isEmpty());
+        assertEquals(List.of("4"), index.search("go", 10));
+
+        index.onEventChanged("{\"eventId\":\"4\",\"changeType\":\"DELETED\",\"timestamp\":\"2026-01-01T10:00:00Z\"}");
+        assertTrue(index.search("meetup", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rebuild_IndexesEveryStoredEvent() {
+        when(eventRepository.findAll()).thenReturn(List.of(event("5", "Book Club", "Carlton"), event("6", "Chess Club", "Carlton")));
+
+        EventSearchIndex rebuilt = new EventSearchIndex(eventRepository);
+        rebuilt.rebuild();
+
+        assertEquals(2, rebuilt.size());
+        assertEquals(2, rebuilt.search("club", 10).size());
+    }
+
+    private static EventDto event(String eventId, String title, String location) {
+        return new EventDto(eventId, title, null, location,
+            OffsetDateTime.parse("2026-01-01T10:00:00Z"), OffsetDateTime.parse("2026-01-01T12:00:00Z"), "1", 10, 0);
+    }
+}
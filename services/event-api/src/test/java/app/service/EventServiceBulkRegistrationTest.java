@@ -0,0 +1,126 @@
+package app.service;
+
+import app.exception.ServiceException;
+import app.model.EventDto;
+import app.repository.EventRegistrationRepository;
+import app.repository.EventRepository;
+import app.repository.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Same context as OutboxRelayTest so the embedded broker is shared
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+    "event.state.dir=target/test-state",
+    "event.outbox.relay-interval-ms=3600000"
+})
+@EmbeddedKafka(partitions = 1, topics = {"event-created", "user-registered-event", "event-capacity-reached"})
+class EventServiceBulkRegistrationTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository registrationRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void registerUsersForEvent_RegistersWholeGroupWithOneCapacityUpdate() {
+        String eventId = saveEvent(5);
+
+        assertEquals(3, eventService.registerUsersForEvent("1", eventId, List.of("1", "2", "3")));
+
+        assertEquals(3, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+        assertEquals(List.of("1", "2", "3"), eventService.getEvent(eventId).getUserIds());
+    }
+
+    @Test
+    void registerUsersForEvent_WhenGroupDoesNotFit_RegistersNobody() {
+        String eventId = saveEvent(3);
+        eventService.registerForEvent("1", eventId);
+
+        ServiceException e = assertThrows(ServiceException.class,
+            () -> eventService.registerUsersForEvent("1", eventId, List.of("2", "3", "4")));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals(List.of("1"), eventService.getEvent(eventId).getUserIds());
+        assertEquals(1, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+        // The seats held for the failed group were handed back
+        assertEquals(2, eventService.registerUsersForEvent("1", eventId, List.of("2", "3")));
+    }
+
+    @Test
+    void registerUsersForEvent_WhenAnyUserIsAlreadyRegistered_RegistersNobody() {
+        String eventId = saveEvent(10);
+        eventService.registerForEvent("2", eventId);
+
+        ServiceException e = assertThrows(ServiceException.class,
+            () -> eventService.registerUsersForEvent("1", eventId, List.of("1", "2", "3")));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals(List.of("2"), eventService.getEvent(eventId).getUserIds());
+        assertEquals(1, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+        assertEquals(2, eventService.registerUsersForEvent("1", eventId, List.of("1", "3")));
+    }
+
+    @Test
+    void registerUsersForEvent_ByGroupMember_RegistersGroup() {
+        String eventId = saveEvent(5);
+
+        assertEquals(2, eventService.registerUsersForEvent("2", eventId, List.of("2", "3")));
+
+        assertEquals(List.of("2", "3"), eventService.getEvent(eventId).getUserIds());
+    }
+
+    @Test
+    void registerUsersForEvent_ByCallerOutsideGroupWhoDidNotCreateEvent_IsForbidden() {
+        String eventId = saveEvent(5);
+
+        ServiceException e = assertThrows(ServiceException.class,
+            () -> eventService.registerUsersForEvent("5", eventId, List.of("2", "3")));
+
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatus());
+        assertEquals(List.of(), eventService.getEvent(eventId).getUserIds());
+        assertEquals(0, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+    }
+
+    @Test
+    void registerUsersForEvent_RejectsEmptyOversizedAndRepeatedGroups() {
+        String eventId = saveEvent(10);
+
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ServiceException.class,
+            () -> eventService.registerUsersForEvent("1", eventId, List.of())).getStatus());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ServiceException.class,
+            () -> eventService.registerUsersForEvent("1", eventId, List.of("1", "1"))).getStatus());
+        List<String> tooMany = IntStream.rangeClosed(0, EventService.MAX_BULK_REGISTRATIONS)
+            .mapToObj(String::valueOf).toList();
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, assertThrows(ServiceException.class,
+            () -> eventService.registerUsersForEvent("1", eventId, tooMany)).getStatus());
+    }
+
+    private String saveEvent(int maxParticipants) {
+        return eventRepository.save(new EventDto(UUID.randomUUID().toString(), "Group Event", null, null,
+            OffsetDateTime.now().plusDays(1), OffsetDateTime.now().plusDays(1).plusHours(2), "1", maxParticipants, 0))
+            .getId();
+    }
+}
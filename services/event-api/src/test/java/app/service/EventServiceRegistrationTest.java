@@ -0,0 +1,157 @@
+package app.service;
+
+import app.exception.ServiceException;
+import app.model.EventDto;
+import app.model.EventRegistration;
+import app.model.RegistrationResult;
+import app.repository.EventRegistrationRepository;
+import app.repository.EventRepository;
+import app.repository.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Registrations written straight to the table stand in for another event-api node whose
+// messages have not arrived yet. Same context as OutboxRelayTest so the embedded broker is shared.
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+    "event.state.dir=target/test-state",
+    "event.outbox.relay-interval-ms=3600000"
+})
+@EmbeddedKafka(partitions = 1, topics = {"event-created", "user-registered-event", "event-capacity-reached"})
+class EventServiceRegistrationTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository registrationRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private SeatReservationEngine reservationEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void deregisterFromEvent_RegisteredOnAnotherNode_Succeeds() {
+        String eventId = saveEvent(5, 1);
+        registrationRepository.save(new EventRegistration("1", eventId));
+
+        eventService.deregisterFromEvent("1", eventId);
+
+        assertTrue(registrationRepository.findByUserIdAndEventId("1", eventId).isEmpty());
+        assertEquals(0, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+    }
+
+    @Test
+    void deregisterFromEvent_WhenTransactionRollsBack_KeepsTheSeat() {
+        String eventId = saveEvent(1, 0);
+        eventService.registerForEvent("1", eventId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventService.deregisterFromEvent("1", eventId);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(registrationRepository.findByUserIdAndEventId("1", eventId).isPresent());
+        assertEquals(1, reservationEngine.getTakenSeats(eventId));
+        assertTrue(eventService.registerForEvent("2", eventId).isWaitlisted());
+
+        eventService.deregisterFromEvent("1", eventId);
+        assertEquals(1, reservationEngine.getTakenSeats(eventId)); // handed to the waitlisted user
+        assertEquals(List.of("2"), eventService.getEvent(eventId).getUserIds());
+    }
+
+    @Test
+    void registerForEvent_AlreadyRegisteredOnAnotherNode_IsAConflict() {
+        String eventId = saveEvent(5, 1);
+        registrationRepository.save(new EventRegistration("1", eventId));
+
+        ServiceException e = assertThrows(ServiceException.class, () -> eventService.registerForEvent("1", eventId));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals(1, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+        assertEquals(List.of(), outboxRepository.findAll());
+        // The failed attempt handed its seat back
+        assertFalse(eventService.registerForEvent("2", eventId).isWaitlisted());
+    }
+
+    @Test
+    void registerForEvent_SeatTakenOnAnotherNode_QueuesTheUser() {
+        String eventId = saveEvent(1, 0);
+        assertEquals(0, reservationEngine.getTakenSeats(eventId));
+        takeSeatOnAnotherNode("1", eventId);
+
+        RegistrationResult result = eventService.registerForEvent("2", eventId);
+
+        assertTrue(result.isWaitlisted());
+        assertEquals(1, result.getPosition());
+        assertEquals(1, reservationEngine.getTakenSeats(eventId));
+        assertEquals(1, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+    }
+
+    @Test
+    void registerForEvent_SeatFreedOnAnotherNode_IsAdmitted() {
+        String eventId = saveEvent(1, 0);
+        eventService.registerForEvent("1", eventId);
+        // Another node deregisters the user; its change never reaches this node's seat counter
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            registrationRepository.deleteByUserIdAndEventId("1", eventId);
+            eventRepository.decrementParticipants(eventId);
+        });
+
+        assertFalse(eventService.registerForEvent("2", eventId).isWaitlisted());
+
+        assertEquals(1, reservationEngine.getTakenSeats(eventId));
+        assertEquals(1, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+    }
+
+    @Test
+    void registerUsersForEvent_SeatsTakenOnAnotherNode_SaysWhy() {
+        String eventId = saveEvent(2, 0);
+        assertEquals(0, reservationEngine.getTakenSeats(eventId));
+        takeSeatOnAnotherNode("1", eventId);
+
+        ServiceException e = assertThrows(ServiceException.class,
+            () -> eventService.registerUsersForEvent("1", eventId, List.of("2", "3")));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertTrue(e.getMessage().contains("another node"), e.getMessage());
+        assertEquals(1, reservationEngine.getTakenSeats(eventId));
+    }
+
+    private void takeSeatOnAnotherNode(String userId, String eventId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            registrationRepository.save(new EventRegistration(userId, eventId));
+            eventRepository.incrementParticipantsIfAvailable(eventId);
+        });
+    }
+
+    private String saveEvent(int maxParticipants, int currentParticipants) {
+        return eventRepository.save(new EventDto(UUID.randomUUID().toString(), "Shared Event", null, null,
+            OffsetDateTime.now().plusDays(1), OffsetDateTime.now().plusDays(1).plusHours(2), "1",
+            maxParticipants, currentParticipants)).getId();
+    }
+}
@@ -0,0 +1,170 @@
+package app.service;
+
+import app.exception.ServiceException;
+import app.model.EventDto;
+import app.model.EventRegistration;
+import app.model.OutboxMessage;
+import app.model.RegistrationResult;
+import app.model.WaitlistEntry;
+import app.publisher.EventEventPublisher;
+import app.repository.EventRegistrationRepository;
+import app.repository.EventRepository;
+import app.repository.OutboxRepository;
+import app.repository.WaitlistRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Same context as OutboxRelayTest so the embedded broker is shared
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+    "event.state.dir=target/test-state",
+    "event.outbox.relay-interval-ms=3600000"
+})
+@EmbeddedKafka(partitions = 1, topics = {"event-created", "user-registered-event", "event-capacity-reached"})
+class EventServiceWaitlistTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private EventRegistrationRepository registrationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void registerForEvent_WhenFull_QueuesInsteadOfFailing() {
+        String eventId = saveEvent(1);
+        eventService.registerForEvent("1", eventId);
+
+        RegistrationResult second = eventService.registerForEvent("2", eventId);
+        RegistrationResult third = eventService.registerForEvent("3", eventId);
+
+        assertTrue(second.isWaitlisted());
+        assertEquals(1, second.getPosition());
+        assertEquals(2, third.getPosition());
+        // Retrying keeps the place
+        assertEquals(2, eventService.registerForEvent("3", eventId).getPosition());
+        assertEquals(HttpStatus.CONFLICT, assertThrows(ServiceException.class,
+            () -> eventService.registerForEvent("1", eventId)).getStatus());
+    }
+
+    @Test
+    void deregisterFromEvent_PromotesTheHeadOfTheWaitlist() {
+        String eventId = saveEvent(1);
+        eventService.registerForEvent("1", eventId);
+        eventService.registerForEvent("2", eventId);
+        eventService.registerForEvent("3", eventId);
+        outboxRepository.deleteAll();
+
+        eventService.deregisterFromEvent("1", eventId);
+
+        assertEquals(RegistrationResult.REGISTERED, eventService.getRegistrationStatus("2", eventId).getStatus());
+        assertEquals(1, eventService.getRegistrationStatus("3", eventId).getPosition());
+        assertEquals(List.of("2"), eventService.getEvent(eventId).getUserIds());
+        assertEquals(1, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+        assertTrue(outboxRepository.findAll().stream().map(OutboxMessage::getTopic).toList()
+            .contains(EventEventPublisher.WAITLIST_PROMOTED_TOPIC));
+    }
+
+    @Test
+    void deregisterFromEvent_PromotesAUserQueuedOnAnotherNode() {
+        String eventId = saveEvent(1);
+        eventService.registerForEvent("1", eventId);
+        // Written straight to the table, as another event-api node would
+        waitlistRepository.save(new WaitlistEntry(eventId, "2", OffsetDateTime.now()));
+
+        // A new sign-up here queues behind them rather than skipping ahead
+        assertEquals(2, eventService.registerForEvent("3", eventId).getPosition());
+
+        eventService.deregisterFromEvent("1", eventId);
+
+        assertEquals(List.of("2"), eventService.getEvent(eventId).getUserIds());
+        assertEquals(1, eventService.getRegistrationStatus("3", eventId).getPosition());
+    }
+
+    @Test
+    void deregisterFromEvent_SkipsAWaitingUserRegisteredOnAnotherNode() {
+        String eventId = saveEvent(2);
+        eventService.registerForEvent("1", eventId);
+        waitlistRepository.save(new WaitlistEntry(eventId, "2", OffsetDateTime.now()));
+        waitlistRepository.save(new WaitlistEntry(eventId, "3", OffsetDateTime.now()));
+        // Another node registers user 2 before their waitlist row is taken
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            registrationRepository.save(new EventRegistration("2", eventId));
+            eventRepository.incrementParticipantsIfAvailable(eventId);
+        });
+
+        eventService.deregisterFromEvent("1", eventId);
+
+        assertEquals(List.of("2", "3"), registrationRepository.findAll().stream()
+            .filter(registration -> registration.getEventId().equals(eventId))
+            .map(EventRegistration::getUserId).sorted().toList());
+        assertEquals(2, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+        assertFalse(waitlistRepository.existsByEventId(eventId));
+    }
+
+    @Test
+    void updateEvent_RaisingCapacityPromotesWaitingUsers() {
+        String eventId = saveEvent(1);
+        eventService.registerForEvent("1", eventId);
+        eventService.registerForEvent("2", eventId);
+        eventService.registerForEvent("3", eventId);
+
+        EventDto update = new EventDto();
+        update.setMaxParticipants(5);
+        eventService.updateEvent("1", eventId, update);
+
+        assertEquals(List.of("1", "2", "3"), eventService.getEvent(eventId).getUserIds());
+        assertEquals(3, eventRepository.findById(eventId).orElseThrow().getCurrentParticipants());
+        // The queue is empty again, so new sign-ups take seats directly
+        assertFalse(eventService.registerForEvent("4", eventId).isWaitlisted());
+    }
+
+    @Test
+    void leaveWaitlist_MovesOthersUp() {
+        String eventId = saveEvent(1);
+        eventService.registerForEvent("1", eventId);
+        eventService.registerForEvent("2", eventId);
+        eventService.registerForEvent("3", eventId);
+
+        eventService.leaveWaitlist("2", eventId);
+
+        assertEquals(1, eventService.getRegistrationStatus("3", eventId).getPosition());
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ServiceException.class,
+            () -> eventService.getRegistrationStatus("2", eventId)).getStatus());
+        assertEquals(HttpStatus.CONFLICT, assertThrows(ServiceException.class,
+            () -> eventService.leaveWaitlist("2", eventId)).getStatus());
+    }
+
+    private String saveEvent(int maxParticipants) {
+        return eventRepository.save(new EventDto(UUID.randomUUID().toString(), "Sold Out Event", null, null,
+            OffsetDateTime.now().plusDays(1), OffsetDateTime.now().plusDays(1).plusHours(2), "1", maxParticipants, 0))
+            .getId();
+    }
+}
@@ -0,0 +1,84 @@
+package app.service;
+
+import app.model.WaitlistEntry;
+import app.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class EventWaitlistTest {
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    private EventWaitlist waitlist;
+
+    @BeforeEach
+    void setUp() {
+        waitlist = new EventWaitlist(waitlistRepository);
+    }
+
+    @Test
+    void join_QueuesInArrivalOrderAndKeepsPlaceOnRepeat() {
+        assertEquals(1, waitlist.join("1", "a"));
+        assertEquals(2, waitlist.join("2", "a"));
+        assertEquals(1, waitlist.join("3", "b"));
+
+        assertEquals(1, waitlist.join("1", "a"));
+        assertEquals(2, waitlist.getPosition("2", "a"));
+        assertEquals(EventWaitlist.NOT_WAITING, waitlist.getPosition("3", "a"));
+        assertEquals(3, waitlistRepository.count());
+    }
+
+    @Test
+    void pollFirst_TakesTheHeadAndDeletesItsRow() {
+        waitlist.join("1", "a");
+        waitlist.join("2", "a");
+
+        assertEquals(Optional.of("1"), waitlist.pollFirst("a"));
+        assertEquals(1, waitlist.getPosition("2", "a"));
+        assertEquals(Optional.of("2"), waitlist.pollFirst("a"));
+        assertEquals(Optional.empty(), waitlist.pollFirst("a"));
+        assertFalse(waitlist.hasWaiting("a"));
+        assertEquals(0, waitlistRepository.count());
+    }
+
+    @Test
+    void leave_MovesEveryoneBehindUp() {
+        waitlist.join("1", "a");
+        waitlist.join("2", "a");
+        waitlist.join("3", "a");
+
+        assertTrue(waitlist.leave("2", "a"));
+        assertFalse(waitlist.leave("2", "a"));
+
+        assertEquals(2, waitlist.getPosition("3", "a"));
+    }
+
+    @Test
+    void join_BehindUsersQueuedOnAnotherNode() {
+        // Rows written straight to the table stand in for another event-api node
+        waitlistRepository.saveAndFlush(new WaitlistEntry("a", "7", OffsetDateTime.now()));
+
+        assertTrue(waitlist.hasWaiting("a"));
+        assertEquals(2, waitlist.join("1", "a"));
+        assertEquals(Optional.of("7"), waitlist.pollFirst("a"));
+        assertEquals(1, waitlist.getPosition("1", "a"));
+    }
+
+    @Test
+    void removeEvent_EmptiesOnlyThatEventsQueue() {
+        waitlist.join("1", "a");
+        waitlist.join("1", "b");
+
+        waitlist.removeEvent("a");
+
+        assertFalse(waitlist.hasWaiting("a"));
+        assertEquals(1, waitlist.getPosition("1", "b"));
+    }
+}
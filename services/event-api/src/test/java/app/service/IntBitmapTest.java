@@ -0,0 +1,78 @@
+package app.service;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntBitmapTest {
+
+    @Test
+    void addRemoveContains_TrackMembershipAndCardinality() {
+        IntBitmap bitmap = new IntBitmap();
+
+        assertTrue(bitmap.add(7));
+        assertFalse(bitmap.add(7));
+        assertTrue(bitmap.add(70_000));
+        assertTrue(bitmap.contains(7));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(8));
+        assertFalse(bitmap.contains(-1));
+        assertEquals(2, bitmap.cardinality());
+
+        assertTrue(bitmap.remove(7));
+        assertFalse(bitmap.remove(7));
+        assertFalse(bitmap.contains(7));
+        assertEquals(1, bitmap.cardinality());
+    }
+
+    @Test
+    void add_SwitchesToDenseChunkAndBackWithoutLosingValues() {
+        IntBitmap bitmap = new IntBitmap();
+        for (int i = 0; i < 10_000; i++) {
+            bitmap.add(i * 3);
+        }
+        assertEquals(10_000, bitmap.cardinality());
+        assertTrue(bitmap.contains(29_997));
+        assertFalse(bitmap.contains(29_998));
+
+        for (int i = 0; i < 9_000; i++) {
+            bitmap.remove(i * 3);
+        }
+        assertEquals(1_000, bitmap.cardinality());
+        assertFalse(bitmap.contains(0));
+        assertTrue(bitmap.contains(27_000));
+    }
+
+    @Test
+    void forEachAndPage_VisitValuesInAscendingOrder() {
+        IntBitmap bitmap = new IntBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            // Mix of sparse chunks and one dense chunk
+            int value = i % 2 == 0 ? random.nextInt(1 << 16) : random.nextInt(1 << 22);
+            bitmap.add(value);
+            expected.add(value);
+        }
+
+        List<Integer> all = new ArrayList<>();
+        bitmap.forEach(all::add);
+        assertEquals(new ArrayList<>(expected), all);
+
+        List<Integer> page = new ArrayList<>();
+        bitmap.page(9_000, 50, page::add);
+        assertEquals(all.subList(9_000, 9_050), page);
+
+        List<Integer> tail = new ArrayList<>();
+        bitmap.page(all.size() - 3, 50, tail::add);
+        assertEquals(all.subList(all.size() - 3, all.size()), tail);
+    }
+
+    @Test
+    void add_RejectsNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> new IntBitmap().add(-1));
+    }
+}
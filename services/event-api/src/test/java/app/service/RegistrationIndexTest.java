@@ -0,0 +1,115 @@
+package app.service;
+
+import app.model.EventRegistration;
+import app.repository.EventRegistrationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegistrationIndexTest {
+
+    @Mock
+    private EventRegistrationRepository registrationRepository;
+
+    private RegistrationIndex registrationIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(registrationRepository.findAll(Sort.by("id"))).thenReturn(List.of(
+            new EventRegistration("3", "a"),
+            new EventRegistration("1", "a"),
+            new EventRegistration("2", "a"),
+            new EventRegistration("1", "c")));
+        registrationIndex = new RegistrationIndex(registrationRepository);
+        registrationIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_LoadsAttendeesAndPerUserEvents() {
+        assertEquals(List.of("3", "1", "2"), registrationIndex.getAttendees("a", Pageable.unpaged()));
+        assertEquals(List.of("2"), registrationIndex.getAttendees("a", PageRequest.of(1, 2)));
+        assertEquals(3, registrationIndex.countAttendees("a"));
+        assertEquals(0, registrationIndex.countAttendees("b"));
+        assertEquals(List.of("a", "c"), registrationIndex.getRegisteredEventIds("1").stream().sorted().toList());
+    }
+
+    @Test
+    void getAttendees_ListsUsersInTheOrderTheyWereFirstSeen() {
+        registrationIndex.register("4", "c");
+        registrationIndex.register("3", "c");
+
+        assertEquals(List.of("3", "1", "4"), registrationIndex.getAttendees("c", Pageable.unpaged()));
+        assertEquals(List.of("4"), registrationIndex.getAttendees("c", PageRequest.of(1, 2)));
+    }
+
+    @Test
+    void register_RejectsDuplicatesAndDeregisterRejectsStrangers() {
+        assertFalse(registrationIndex.register("1", "a"));
+        assertTrue(registrationIndex.register("4", "a"));
+        assertEquals(4, registrationIndex.countAttendees("a"));
+
+        assertFalse(registrationIndex.deregister("4", "c"));
+        assertFalse(registrationIndex.deregister("5", "a"));
+        assertTrue(registrationIndex.deregister("4", "a"));
+        assertEquals(List.of(), registrationIndex.getRegisteredEventIds("4"));
+    }
+
+    @Test
+    void onRegistrationChanged_AppliesOtherNodesWritesFromTheTable() {
+        when(registrationRepository.findByUserIdAndEventId("4", "a"))
+            .thenReturn(Optional.of(new EventRegistration("4", "a")));
+        when(registrationRepository.findByUserIdAndEventId("3", "a")).thenReturn(Optional.empty());
+
+        registrationIndex.onRegistrationChanged("{\"userId\":\"4\",\"eventId\":\"a\",\"eventTitle\":\"A\"}");
+        registrationIndex.onRegistrationChanged("{\"eventId\":\"a\",\"changeType\":\"DEREGISTERED\",\"userId\":\"3\"}");
+
+        assertTrue(registrationIndex.isRegistered("4", "a"));
+        assertFalse(registrationIndex.isRegistered("3", "a"));
+        assertEquals(List.of("a"), registrationIndex.getRegisteredEventIds("4"));
+
+        registrationIndex.onRegistrationChanged("{\"eventId\":\"c\",\"changeType\":\"DELETED\"}");
+        assertEquals(List.of("a"), registrationIndex.getRegisteredEventIds("1"));
+    }
+
+    @Test
+    void registerAndDeregister_AreUndoneWhenTheTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registrationIndex.register("4", "a");
+            registrationIndex.deregister("1", "c");
+            assertEquals(4, registrationIndex.countAttendees("a"));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("3", "1", "2"), registrationIndex.getAttendees("a", Pageable.unpaged()));
+        assertEquals(List.of("1"), registrationIndex.getAttendees("c", Pageable.unpaged()));
+        assertTrue(registrationIndex.getRegisteredEventIds("1").contains("c"));
+    }
+
+    @Test
+    void removeEvent_DropsItFromEveryAttendee() {
+        registrationIndex.removeEvent("a");
+
+        assertEquals(0, registrationIndex.countAttendees("a"));
+        assertEquals(List.of("c"), registrationIndex.getRegisteredEventIds("1"));
+        assertEquals(List.of(), registrationIndex.getRegisteredEventIds("3"));
+        verify(registrationRepository, times(1)).findAll(Sort.by("id"));
+    }
+}
@@ -0,0 +1,107 @@
+package app.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatReservationEngineTest {
+
+    private static final int THREADS = 400;
+
+    @Mock
+    private RegistrationIndex registrationIndex;
+
+    private SeatReservationEngine reservationEngine;
+
+    @BeforeEach
+    void setUp() {
+        reservationEngine = new SeatReservationEngine(registrationIndex);
+    }
+
+    @Test
+    void tryReserve_SeedsFromExistingRegistrations() {
+        when(registrationIndex.countAttendees("1")).thenReturn(9);
+
+        assertEquals(10, reservationEngine.tryReserve("1", 10));
+        assertEquals(SeatReservationEngine.REJECTED, reservationEngine.tryReserve("1", 10));
+        verify(registrationIndex, times(1)).countAttendees("1");
+    }
+
+    @Test
+    void tryReserve_FromManyThreads_NeverOversells() throws Exception {
+        when(registrationIndex.countAttendees("1")).thenReturn(0);
+        int capacity = 100;
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(() -> {
+            if (reservationEngine.tryReserve("1", capacity) == SeatReservationEngine.REJECTED) {
+                rejected.incrementAndGet();
+            } else {
+                admitted.incrementAndGet();
+            }
+        });
+
+        assertEquals(capacity, admitted.get());
+        assertEquals(THREADS - capacity, rejected.get());
+        assertEquals(capacity, reservationEngine.getTakenSeats("1"));
+    }
+
+    @Test
+    void tryReserveAndRelease_FromManyThreads_LosesNoUpdates() throws Exception {
+        when(registrationIndex.countAttendees("1")).thenReturn(0);
+        int capacity = 50;
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger released = new AtomicInteger();
+        AtomicInteger thread = new AtomicInteger();
+
+        runConcurrently(() -> {
+            if (reservationEngine.tryReserve("1", capacity) != SeatReservationEngine.REJECTED) {
+                admitted.incrementAndGet();
+                // Every other admitted caller cancels straight away
+                if (thread.incrementAndGet() % 2 == 0) {
+                    reservationEngine.release("1");
+                    released.incrementAndGet();
+                }
+            }
+        });
+
+        int taken = reservationEngine.getTakenSeats("1");
+        assertEquals(admitted.get() - released.get(), taken);
+        assertTrue(taken <= capacity);
+    }
+
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
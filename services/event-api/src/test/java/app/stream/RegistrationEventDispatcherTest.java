@@ -0,0 +1,92 @@
+package app.stream;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RegistrationEventDispatcherTest {
+
+    @TempDir
+    Path dir;
+
+    private TrendingEventsProcessor trendingProcessor;
+    private CapacityMonitoringProcessor capacityProcessor;
+    private EventAnalyticsProcessor analyticsProcessor;
+    private RegistrationEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        trendingProcessor = new TrendingEventsProcessor(dir.toString());
+        capacityProcessor = new CapacityMonitoringProcessor(dir.toString());
+        analyticsProcessor = new EventAnalyticsProcessor(dir.toString());
+        dispatcher = new RegistrationEventDispatcher(trendingProcessor, capacityProcessor, analyticsProcessor);
+    }
+
+    @Test
+    void dispatch_DecodesOnceAndFeedsEveryProcessor() {
+        dispatcher.dispatch(registration(0, 0, 3));
+
+        assertEquals("e1", trendingProcessor.getTopTrendingEvents(1).get(0).get("eventId"));
+        assertEquals(30.0, capacityProcessor.getCapacityStatus().get("e1"));
+        assertEquals(1, analyticsProcessor.getGlobalAnalytics().get("totalRegistrations"));
+    }
+
+    @Test
+    void dispatch_SkipsRecordsAlreadyApplied() {
+        dispatcher.dispatch(registration(0, 0, 1));
+        dispatcher.dispatch(registration(0, 1, 2));
+        // Redelivered after a rebalance
+        dispatcher.dispatch(registration(0, 1, 2));
+
+        assertEquals(2L, trendingProcessor.getTopTrendingEvents(1).get(0).get("registrations"));
+        assertEquals(2, analyticsProcessor.getGlobalAnalytics().get("totalRegistrations"));
+    }
+
+    @Test
+    void dispatch_IgnoresUndecodableRecords() {
+        dispatcher.dispatch(new ConsumerRecord<>(RegistrationEventDispatcher.TOPIC, 0, 0, "e1", "{not json"));
+
+        assertTrue(trendingProcessor.getTopTrendingEvents(10).isEmpty());
+        assertEquals(0, analyticsProcessor.getGlobalAnalytics().get("totalRegistrations"));
+    }
+
+    @Test
+    void onPartitionsAssigned_SeeksToOldestProcessorCheckpoint() throws Exception {
+        dispatcher.dispatch(registration(0, 0, 1));
+        trendingProcessor.snapshot();
+        dispatcher.dispatch(registration(0, 1, 2));
+        capacityProcessor.snapshot();
+        analyticsProcessor.snapshot();
+
+        // Restart: the trending snapshot is one record behind the others
+        setUp();
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+        TopicPartition partition = new TopicPartition(RegistrationEventDispatcher.TOPIC, 0);
+        dispatcher.onPartitionsAssigned(Map.of(partition, 0L), callback);
+
+        verify(callback).seek(RegistrationEventDispatcher.TOPIC, 0, 1L);
+
+        dispatcher.dispatch(registration(0, 1, 2));
+        assertEquals(2L, trendingProcessor.getTopTrendingEvents(1).get(0).get("registrations"));
+        assertEquals(2, analyticsProcessor.getGlobalAnalytics().get("totalRegistrations"));
+    }
+
+    private static ConsumerRecord<String, String> registration(int partition, long offset, int currentParticipants) {
+        String json = "{\"userId\":\"u" + offset + "\",\"eventId\":\"e1\",\"eventTitle\":\"Meetup\","
+            + "\"currentParticipants\":" + currentParticipants + ",\"maxParticipants\":10,"
+            + "\"timestamp\":\"2024-01-01T10:00:00Z\"}";
+        return new ConsumerRecord<>(RegistrationEventDispatcher.TOPIC, partition, offset,
+            System.currentTimeMillis(), TimestampType.CREATE_TIME, 2, json.length(), "e1", json,
+            new RecordHeaders(), Optional.empty());
+    }
+}
@@ -0,0 +1,91 @@
+package app.stream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+    private static final Logger logger = LoggerFactory.getLogger(SlidingWindowCounterTest.class);
+
+    private static final long T0 = 1_700_000_000L;
+
+    @Test
+    void count_IncludesEveryRegistrationInWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(300, 10);
+
+        // Same second registrations are all counted, not collapsed
+        counter.increment(T0);
+        counter.increment(T0);
+        counter.increment(T0 + 125);
+
+        assertEquals(3, counter.count(T0 + 125));
+    }
+
+    @Test
+    void count_ExpiresBucketsThatLeaveWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(300, 10);
+        counter.increment(T0);
+        counter.increment(T0 + 100);
+        counter.increment(T0 + 200);
+
+        assertEquals(2, counter.count(T0 + 305));
+        assertEquals(1, counter.count(T0 + 405));
+        assertEquals(0, counter.count(T0 + 10_000));
+    }
+
+    @Test
+    void increment_IgnoresRegistrationsOlderThanWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(300, 10);
+        counter.increment(T0 + 1_000);
+        counter.increment(T0);
+
+        assertEquals(1, counter.count(T0 + 1_000));
+    }
+
+    @Test
+    void increment_KeepsTheSameBucketsAndExactCountsAsRateClimbs() {
+        // An O(n) window would grow with the number of registrations it holds; this one stays a fixed ring
+        for (int registrations : new int[] {3_000, 30_000, 300_000, 3_000_000}) {
+            SlidingWindowCounter counter = fill(registrations);
+
+            assertEquals(30, counter.getBucketCount());
+            assertEquals(registrations, counter.count(T0 + 299));
+            // Sliding one bucket forward drops exactly the oldest bucket's share
+            assertEquals(registrations - registrations / 30, counter.count(T0 + 300));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void increment_PerMessageCostStaysFlatAsRateClimbs() {
+        int[] rates = {1_000, 10_000, 100_000, 1_000_000};
+        double[] nanosPerMessage = new double[rates.length];
+
+        time(200_000);
+        for (int i = 0; i < rates.length; i++) {
+            nanosPerMessage[i] = time(rates[i]);
+            logger.info("SlidingWindowCounter: {} registrations/window -> {} ns/message",
+                rates[i], String.format("%.1f", nanosPerMessage[i]));
+        }
+
+        assertTrue(nanosPerMessage[rates.length - 1] < Math.max(nanosPerMessage[0], 50.0) * 10,
+            "per-message cost grew with registration rate");
+    }
+
+    private static double time(int registrations) {
+        long start = System.nanoTime();
+        fill(registrations);
+        return (double) (System.nanoTime() - start) / registrations;
+    }
+
+    // Registrations spread evenly over the five minute window
+    private static SlidingWindowCounter fill(int registrations) {
+        SlidingWindowCounter counter = new SlidingWindowCounter(300, 10);
+        for (int i = 0; i < registrations; i++) {
+            counter.increment(T0 + (300L * i) / registrations);
+        }
+        return counter;
+    }
+}
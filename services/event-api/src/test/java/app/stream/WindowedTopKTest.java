@@ -0,0 +1,61 @@
+package app.stream;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowedTopKTest {
+
+    private static final long T0 = 1_700_000_000L;
+
+    @Test
+    void top_RanksHottestEventsFirst() {
+        WindowedTopK topK = new WindowedTopK(300, 60, 16);
+        record(topK, "a", 5, T0);
+        record(topK, "b", 9, T0 + 61);
+        record(topK, "c", 2, T0 + 122);
+
+        List<Map.Entry<String, Long>> top = topK.top(2, T0 + 130);
+
+        assertEquals(List.of("b", "a"), top.stream().map(Map.Entry::getKey).toList());
+        assertEquals(9L, top.get(0).getValue());
+    }
+
+    @Test
+    void top_ForgetsBucketsOutsideWindow() {
+        WindowedTopK topK = new WindowedTopK(300, 60, 16);
+        record(topK, "old", 50, T0);
+        record(topK, "new", 3, T0 + 310);
+
+        List<Map.Entry<String, Long>> top = topK.top(5, T0 + 310);
+
+        assertEquals(List.of("new"), top.stream().map(Map.Entry::getKey).toList());
+    }
+
+    @Test
+    void top_FindsHeavyHittersAmongManyMoreEventsThanCapacity() {
+        WindowedTopK topK = new WindowedTopK(300, 60, 32);
+        // 10,000 one-off events interleaved with three hot ones
+        for (int i = 0; i < 10_000; i++) {
+            topK.increment("cold-" + i, T0);
+            if (i % 10 == 0) {
+                topK.increment("hot-1", T0);
+                topK.increment("hot-2", T0);
+            }
+            if (i % 20 == 0) {
+                topK.increment("hot-3", T0);
+            }
+        }
+
+        List<Map.Entry<String, Long>> top = topK.top(3, T0);
+
+        assertEquals(List.of("hot-1", "hot-2", "hot-3"), top.stream().map(Map.Entry::getKey).sorted().toList());
+    }
+
+    private void record(WindowedTopK topK, String eventId, int registrations, long epochSecond) {
+        for (int i = 0; i < registrations; i++) {
+            topK.increment(eventId, epochSecond);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package app.stream.state;
+
+import app.stream.SlidingWindowCounter;
+import app.stream.WindowedTopK;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStateStoreTest {
+
+    private static final long T0 = 1_700_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void snapshot_RestoresStateAndCheckpointedOffsets() throws Exception {
+        LocalStateStore<WindowState> store = open();
+        for (int offset = 0; offset < 5; offset++) {
+            store.apply(record("user-registered-event", 0, offset), state -> state.track("a", T0));
+        }
+        store.apply(record("user-registered-event", 1, 41), state -> state.track("b", T0 + 61));
+        store.snapshot();
+
+        LocalStateStore<WindowState> restored = open();
+
+        assertEquals(5L, restored.nextOffset("user-registered-event", 0));
+        assertEquals(42L, restored.nextOffset("user-registered-event", 1));
+        assertNull(restored.nextOffset("event-created", 0));
+        assertEquals(List.of(Map.entry("a", 5L), Map.entry("b", 1L)),
+            restored.query(state -> state.topEvents.top(10, T0 + 61)));
+        int restoredCount = restored.query(state -> state.windows.get("a").count(T0 + 61));
+        assertEquals(5, restoredCount);
+    }
+
+    @Test
+    void snapshot_RestoredSketchKeepsEvictingCorrectly() throws Exception {
+        LocalStateStore<WindowState> store = open();
+        // Fill the sketch to capacity so the next new key has to replace the smallest counter
+        store.update(state -> {
+            for (int i = 0; i < 4; i++) {
+                for (int n = 0; n <= i; n++) {
+                    state.track("event-" + i, T0);
+                }
+            }
+        });
+        store.snapshot();
+
+        LocalStateStore<WindowState> restored = open();
+        restored.update(state -> state.track("late", T0));
+
+        List<String> keys = restored.query(state -> state.topEvents.top(10, T0)).stream()
+            .map(Map.Entry::getKey).toList();
+        assertEquals(4, keys.size());
+        assertTrue(keys.contains("late"));
+        assertFalse(keys.contains("event-0"));
+    }
+
+    @Test
+    void open_StartsEmptyWhenSnapshotIsUnreadable() throws Exception {
+        Files.writeString(dir.resolve("windows.json"), "{not json");
+
+        LocalStateStore<WindowState> store = open();
+
+        boolean empty = store.query(state -> state.windows.isEmpty());
+        assertTrue(empty);
+        assertNull(store.nextOffset("user-registered-event", 0));
+    }
+
+    private LocalStateStore<WindowState> open() {
+        return new LocalStateStore<>(dir, "windows", WindowState.class, WindowState::new);
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, int partition, long offset) {
+        return new ConsumerRecord<>(topic, partition, offset, "key", "{}");
+    }
+
+    static class WindowState {
+        private Map<String, SlidingWindowCounter> windows = new HashMap<>();
+        private WindowedTopK topEvents = new WindowedTopK(300, 60, 4);
+
+        void track(String eventId, long epochSecond) {
+            windows.computeIfAbsent(eventId, id -> new SlidingWindowCounter(300, 10)).increment(epochSecond);
+            topEvents.increment(eventId, epochSecond);
+        }
+    }
+}
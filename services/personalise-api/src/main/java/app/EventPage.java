@@ -0,0 +1,16 @@
+package app.model;
+
+import java.util.List;
+
+public class EventPage {
+    private List<EventDto> events;
+    private String nextCursor;
+
+    public EventPage() {}
+
+    public List<EventDto> getEvents() { return events; }
+    public void setEvents(List<EventDto> events) { this.events = events; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -7,6 +7,8 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import dev.langchain4j.agent.tool.Tool;
 import app.model.EventDto;
+import app.model.EventPage;
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,22 +17,27 @@ public class AllEventsTool {
 
     private final RestTemplate restTemplate;
     private static final String EVENT_API_BASE = "http://localhost:8082";
+    private static final int MAX_EVENTS = 50;
 
     public AllEventsTool(RestTemplate restTemplate) {
         this.restTemplate = restTemplate;
     }
 
-    @Tool("Fetches all events available in the system, including their title, description, location, time, and capacity")
+    @Tool("Fetches the next upcoming events in the system, soonest first, including their title, description, location, time, and capacity")
     public String getAllEvents() {
         try {
-            ResponseEntity<List<EventDto>> response = restTemplate.exchange(
-                EVENT_API_BASE + "/api/v1/events",
+            // Only the first page of upcoming events keeps the prompt bounded as the catalog grows
+            ResponseEntity<EventPage> response = restTemplate.exchange(
+                EVENT_API_BASE + "/api/v1/events/page?limit={limit}&from={from}",
                 HttpMethod.GET,
                 null,
-                new ParameterizedTypeReference<List<EventDto>>() {}
+                new ParameterizedTypeReference<EventPage>() {},
+                MAX_EVENTS,
+                Instant.now().toString()
             );
 
-            List<EventDto> events = response.getBody();
+            EventPage page = response.getBody();
+            List<EventDto> events = page == null ? null : page.getEvents();
             if (events == null || events.isEmpty()) {
                 return "No events found";
             }
@@ -0,0 +1,59 @@
+package app;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+public class UserChangedEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private String userId;
+    private String changeType;
+    private OffsetDateTime timestamp;
+
+    // Default constructor for JSON deserialization
+    public UserChangedEvent() {
+    }
+
+    public UserChangedEvent(String userId, String changeType, OffsetDateTime timestamp) {
+        this.userId = userId;
+        this.changeType = changeType;
+        this.timestamp = timestamp;
+    }
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+
+    public OffsetDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(OffsetDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangedEvent{" +
+                "userId='" + userId + '\'' +
+                ", changeType='" + changeType + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
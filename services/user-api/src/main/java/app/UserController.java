@@ -99,6 +99,8 @@ public class UserController {
                 }
 
                 userRepository.save(user);
+                userEventPublisher.publishUserChanged(
+                    new UserChangedEvent(userId.toString(), UserChangedEvent.UPDATED, OffsetDateTime.now()));
                 return ResponseEntity.ok().build();
             }
 
@@ -114,6 +116,8 @@ public class UserController {
             Long userId = Long.valueOf(token);
             if (userRepository.existsById(userId)) {
                 userRepository.deleteById(userId);
+                userEventPublisher.publishUserChanged(
+                    new UserChangedEvent(userId.toString(), UserChangedEvent.DELETED, OffsetDateTime.now()));
                 return ResponseEntity.ok().build();
             }
 
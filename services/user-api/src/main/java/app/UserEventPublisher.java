@@ -1,29 +1,74 @@
 package app;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+// Sends never wait for the broker: the producer batches and compresses records in the background and the
+// ack callback counts each outcome, so request threads only pay for serialising the event
 @Component
 public class UserEventPublisher {
     private static final Logger logger = LoggerFactory.getLogger(UserEventPublisher.class);
     private static final String USER_CREATED_TOPIC = "user-created";
+    private static final String USER_CHANGED_TOPIC = "user-changed";
 
-    private final KafkaTemplate<String, UserCreatedEvent> kafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    public UserEventPublisher(KafkaTemplate<String, UserCreatedEvent> kafkaTemplate) {
+    private final Outcomes userCreated;
+    private final Outcomes userChanged;
+
+    public UserEventPublisher(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.userCreated = new Outcomes(meterRegistry, USER_CREATED_TOPIC);
+        this.userChanged = new Outcomes(meterRegistry, USER_CHANGED_TOPIC);
     }
 
     public void publishUserCreated(UserCreatedEvent event) {
+        send(USER_CREATED_TOPIC, userCreated, event.getUserId(), event);
+    }
+
+    // Lets services that cache user lookups drop stale entries
+    public void publishUserChanged(UserChangedEvent event) {
+        send(USER_CHANGED_TOPIC, userChanged, event.getUserId(), event);
+    }
+
+    private void send(String topic, Outcomes outcomes, String userId, Object event) {
         try {
-            logger.info("Publishing UserCreatedEvent for user: {}", event.getUserId());
-            kafkaTemplate.send(USER_CREATED_TOPIC, event.getUserId(), event);
-            logger.info("Successfully published UserCreatedEvent for user: {}", event.getUserId());
+            kafkaTemplate.send(topic, userId, event).whenComplete((result, e) -> {
+                if (e == null) {
+                    outcomes.sent.increment();
+                    logger.debug("Published {} for user: {}", event.getClass().getSimpleName(), userId);
+                } else {
+                    outcomes.failed.increment();
+                    logger.warn("Failed to publish {} for user: {}", event.getClass().getSimpleName(), userId, e);
+                }
+            });
         } catch (Exception e) {
-            logger.error("Failed to publish UserCreatedEvent for user: {}", event.getUserId(), e);
+            // Serialisation or metadata failures surface here rather than in the callback
+            outcomes.failed.increment();
+            logger.error("Failed to publish {} for user: {}", event.getClass().getSimpleName(), userId, e);
             // In a production system, you might want to implement retry logic or dead letter queue
         }
     }
+
+    // Registered once per topic so the send callbacks only increment
+    private static final class Outcomes {
+        private final Counter sent;
+        private final Counter failed;
+
+        Outcomes(MeterRegistry meterRegistry, String topic) {
+            this.sent = counter(meterRegistry, topic, "sent");
+            this.failed = counter(meterRegistry, topic, "failed");
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String topic, String outcome) {
+            return Counter.builder("user.events.published")
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package app.controller;
 
+import app.UserChangedEvent;
 import app.UserController;
 import app.UserEntity;
 import app.UserEventPublisher;
@@ -14,6 +15,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -127,6 +129,8 @@ class UserControllerTest {
 
         verify(userRepository).findById(1L);
         verify(userRepository).save(any(UserEntity.class));
+        verify(userEventPublisher).publishUserChanged(argThat(event ->
+                "1".equals(event.getUserId()) && UserChangedEvent.UPDATED.equals(event.getChangeType())));
     }
 
     @Test
@@ -138,6 +142,8 @@ class UserControllerTest {
                 .andExpect(status().isOk());
 
         verify(userRepository).deleteById(1L);
+        verify(userEventPublisher).publishUserChanged(argThat(event ->
+                "1".equals(event.getUserId()) && UserChangedEvent.DELETED.equals(event.getChangeType())));
     }
 
     @Test